@@ -0,0 +1,44 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.services.BeerCSVService;
+import guru.springframework.spring6restmvc.services.impl.BeerCSVServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerCSVServiceBenchmark {
+
+    private final BeerCSVService beerCSVService = new BeerCSVServiceImpl();
+
+    private File file;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        this.file = ResourceUtils.getFile("classpath:csvdata/beer.csv");
+    }
+
+    @Benchmark
+    public List<BeerCSVRecord> convertCSV() {
+        return this.beerCSVService.convertCSV(this.file);
+    }
+}
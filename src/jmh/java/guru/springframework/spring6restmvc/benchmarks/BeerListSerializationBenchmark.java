@@ -0,0 +1,97 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.mappers.BeerMapperImpl;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import guru.springframework.spring6restmvc.repositories.BeerInventorySummary;
+import guru.springframework.spring6restmvc.services.impl.BeerJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One beer list response from the projection rows of a page: mapped to {@code BeerDTO}s and serialised by a plain or a
+ * Blackbird {@link ObjectMapper}, against {@link BeerJsonWriter}. Run with the jmh profile, whose {@code -prof gc}
+ * reports {@code gc.alloc.rate.norm}, the bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeerListSerializationBenchmark {
+
+    @Param({"25", "1000"})
+    private int pageSize;
+
+    private final BeerMapper beerMapper = new BeerMapperImpl();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper blackbirdObjectMapper = this.objectMapper.copy()
+            .registerModule(new BlackbirdModule());
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(512 * 1024);
+
+    private Page<BeerInventorySummary> page;
+
+    @Setup
+    public void setUp() {
+        final var rows = new ArrayList<BeerInventorySummary>(this.pageSize);
+
+        for (int i = 0; i < this.pageSize; i++) {
+            rows.add(new BeerInventorySummary(UUID.randomUUID(), 1, "Galaxy Cat " + i, BeerStyle.PALE_ALE, "12356",
+                    new BigDecimal("12.99"), i, LocalDateTime.now(), LocalDateTime.now()));
+        }
+
+        this.page = new PageImpl<>(rows, PageRequest.of(0, this.pageSize), 10_000);
+    }
+
+    @Benchmark
+    public int objectMapperPageDTO() throws IOException {
+        this.outputStream.reset();
+        this.objectMapper.writeValue(this.outputStream, PageDTO.of(this.page.map(this.beerMapper::beerInventorySummaryToBeerDTO)));
+        return this.outputStream.size();
+    }
+
+    @Benchmark
+    public int blackbirdPageDTO() throws IOException {
+        this.outputStream.reset();
+        this.blackbirdObjectMapper.writeValue(this.outputStream, PageDTO.of(this.page.map(this.beerMapper::beerInventorySummaryToBeerDTO)));
+        return this.outputStream.size();
+    }
+
+    @Benchmark
+    public int streamingWriter() throws IOException {
+        this.outputStream.reset();
+        BeerJsonWriter.writePage(this.page, BeerJsonWriter::writeBeer, this.outputStream);
+        return this.outputStream.size();
+    }
+}
@@ -0,0 +1,60 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SliceDTO;
+import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.impl.BeerServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeerServiceImplBenchmark {
+
+    private final BeerService beerService = new BeerServiceImpl();
+
+    private UUID beerId;
+
+    @Setup
+    public void setUp() {
+        this.beerId = this.beerService.getBeerPage(null, null, true, 0, 25).getContent().get(0).getId();
+    }
+
+    @Benchmark
+    public Page<BeerDTO> getBeerPage() {
+        return this.beerService.getBeerPage(null, null, true, 0, 25);
+    }
+
+    @Benchmark
+    public SliceDTO<BeerDTO> getBeerSliceByName() {
+        return this.beerService.getBeerSlice("cat", null, true, null, 25);
+    }
+
+    @Benchmark
+    public SliceDTO<BeerDTO> getBeerSliceByStyle() {
+        return this.beerService.getBeerSlice(null, BeerStyle.PALE_ALE, true, null, 25);
+    }
+
+    @Benchmark
+    public Optional<BeerDTO> getBeerById() {
+        return this.beerService.getBeerById(this.beerId);
+    }
+}
@@ -0,0 +1,71 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.Spring6RestMvcApplication;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link BeerService#getBeerPage} through the JPA implementation against the H2 database seeded from
+ * csvdata/beer.csv, once per filter branch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerServiceJpaBenchmark {
+
+    @Param({"ALL", "NAME", "STYLE", "NAME_AND_STYLE"})
+    private String filter;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerService beerService;
+
+    private String beerName;
+
+    private BeerStyle beerStyle;
+
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(Spring6RestMvcApplication.class)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "logging.level.guru.springframework=warn")
+                .run();
+        this.beerService = this.context.getBean(BeerService.class);
+
+        this.beerName = this.filter.startsWith("NAME") ? "IPA" : null;
+        this.beerStyle = this.filter.endsWith("STYLE") ? BeerStyle.IPA : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Page<BeerDTO> getBeerPage() {
+        return this.beerService.getBeerPage(this.beerName, this.beerStyle, true, 0, 25);
+    }
+}
@@ -0,0 +1,107 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.enteties.Customer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.mappers.BeerMapperImpl;
+import guru.springframework.spring6restmvc.mappers.CustomerMapper;
+import guru.springframework.spring6restmvc.mappers.CustomerMapperImpl;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BeerMapper beerMapper = new BeerMapperImpl();
+
+    private final CustomerMapper customerMapper = new CustomerMapperImpl();
+
+    private Beer beer;
+
+    private BeerDTO beerDTO;
+
+    private List<Beer> beerPage;
+
+    private Customer customer;
+
+    private CustomerDTO customerDTO;
+
+    @Setup
+    public void setUp() {
+        this.beer = Beer.builder()
+                .id(UUID.randomUUID())
+                .version(3)
+                .beerName("Galaxy Cat")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("12356")
+                .price(new BigDecimal("12.99"))
+                .quantityOnHand(122)
+                .createdDate(LocalDateTime.now())
+                .updatedDate(LocalDateTime.now())
+                .build();
+        this.beerDTO = this.beerMapper.beerToBeerDTO(this.beer);
+
+        this.beerPage = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            this.beerPage.add(this.beer);
+        }
+
+        this.customer = Customer.builder()
+                .id(UUID.randomUUID())
+                .version(1)
+                .name("Pan Oleg")
+                .email("oleg@example.com")
+                .createdDateTime(LocalDateTime.now())
+                .lastUpdateDateTime(LocalDateTime.now())
+                .build();
+        this.customerDTO = this.customerMapper.customerToCustomerDto(this.customer);
+    }
+
+    @Benchmark
+    public BeerDTO beerToBeerDTO() {
+        return this.beerMapper.beerToBeerDTO(this.beer);
+    }
+
+    @Benchmark
+    public Beer beerDTOtoBeer() {
+        return this.beerMapper.beerDTOtoBeer(this.beerDTO);
+    }
+
+    @Benchmark
+    public List<BeerDTO> beerPageToBeerDTOs() {
+        return this.beerMapper.beerListToBeerListDto(this.beerPage);
+    }
+
+    @Benchmark
+    public CustomerDTO customerToCustomerDto() {
+        return this.customerMapper.customerToCustomerDto(this.customer);
+    }
+
+    @Benchmark
+    public Customer customerDtoToCustomer() {
+        return this.customerMapper.customerDtoToCustomer(this.customerDTO);
+    }
+}
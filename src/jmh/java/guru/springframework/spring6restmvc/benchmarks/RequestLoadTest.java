@@ -0,0 +1,172 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.Spring6RestMvcApplication;
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load test comparing the default platform-thread Tomcat pool with
+ * {@code app.virtual-threads.enabled=true}. Each mode boots the application on a random port and is hit by
+ * {@code clients} concurrent callers until {@code requests} calls have completed, alternating a beer lookup and a
+ * beer page query. Prints throughput and latency percentiles per mode; the virtual thread run is skipped on a
+ * runtime older than Java 21.
+ *
+ * <pre>
+ * mvn -Pjmh,java21 test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=guru.springframework.spring6restmvc.benchmarks.RequestLoadTest -Dexec.args="1000 50000"
+ * </pre>
+ */
+public class RequestLoadTest {
+
+    private static final int DEFAULT_CLIENTS = 500;
+
+    private static final int DEFAULT_REQUESTS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        final var clients = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+        final var requests = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REQUESTS;
+
+        System.out.printf("%-10s %8s %12s %10s %10s %10s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+
+        run("platform", false, clients, requests);
+
+        if (Runtime.version().feature() >= 21) {
+            run("virtual", true, clients, requests);
+        } else {
+            System.out.println("virtual    skipped, needs Java 21 (running " + Runtime.version() + ")");
+        }
+    }
+
+    private static void run(final String mode, final boolean virtualThreads, final int clients, final int requests)
+            throws Exception {
+        try (var context = new SpringApplicationBuilder(Spring6RestMvcApplication.class)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "logging.level.guru.springframework=warn",
+                        "app.virtual-threads.enabled=" + virtualThreads,
+                        "spring.main.allow-bean-definition-overriding=true")
+                // registered under the name of SpringSecConfig's decoder, so that @Bean method is skipped
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(
+                        "jwtDecoder", JwtDecoder.class, () -> RequestLoadTest::decode))
+                .run()) {
+            final var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final var beerIds = context.getBean(BeerRepository.class).findAll().stream()
+                    .map(beer -> beer.getId())
+                    .limit(500)
+                    .toList();
+
+            final var clientExecutor = Executors.newFixedThreadPool(Math.min(clients, 64));
+            final var httpClient = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            final LoadResult result;
+            final double elapsedSeconds;
+
+            try {
+                // warm up JIT, caches and the connection pool before measuring
+                drive(httpClient, port, beerIds, clients, Math.max(requests / 10, clients));
+
+                final var startNanos = System.nanoTime();
+                result = drive(httpClient, port, beerIds, clients, requests);
+                elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+            } finally {
+                clientExecutor.shutdown();
+            }
+
+            final var latencies = result.latencyMicros();
+            Arrays.sort(latencies);
+
+            System.out.printf("%-10s %8d %12.0f %10.2f %10.2f %10.2f %8d%n", mode, clients, latencies.length / elapsedSeconds,
+                    percentile(latencies, 0.50) / 1000d, percentile(latencies, 0.99) / 1000d,
+                    latencies[latencies.length - 1] / 1000d, result.errors());
+        }
+    }
+
+    private static LoadResult drive(final HttpClient httpClient, final int port, final List<UUID> beerIds,
+                                    final int clients, final int requests) throws Exception {
+        final var issued = new AtomicInteger();
+        final var errors = new AtomicInteger();
+        final var latencies = new long[requests];
+        final var workers = new ArrayList<Callable<Void>>(clients);
+
+        for (int client = 0; client < clients; client++) {
+            workers.add(() -> {
+                int index;
+
+                while ((index = issued.getAndIncrement()) < requests) {
+                    final var path = index % 2 == 0
+                            ? BeerController.BEER_PATH + "/" + beerIds.get(index % beerIds.size())
+                            : BeerController.BEER_PATH + "?pageNumber=" + (index % 40) + "&pageSize=25";
+                    final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                            .header("Authorization", "Bearer load-test")
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+
+                    final var startNanos = System.nanoTime();
+
+                    try {
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+
+                    latencies[index] = (System.nanoTime() - startNanos) / 1000;
+                }
+
+                return null;
+            });
+        }
+
+        final var executor = Executors.newFixedThreadPool(clients);
+
+        try {
+            for (var future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return new LoadResult(latencies, errors.get());
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static Jwt decode(final String token) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "none")
+                .subject("load-test")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+
+    private record LoadResult(long[] latencyMicros, int errors) {
+    }
+}
@@ -2,12 +2,15 @@ package guru.springframework.spring6restmvc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class Spring6RestMvcApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(Spring6RestMvcApplication.class, args);
+        final var application = new SpringApplication(Spring6RestMvcApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        application.run(args);
     }
 
 }
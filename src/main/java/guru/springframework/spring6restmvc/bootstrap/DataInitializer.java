@@ -1,135 +1,192 @@
 package guru.springframework.spring6restmvc.bootstrap;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.enteties.Customer;
-import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.enteties.DataSeed;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
-import guru.springframework.spring6restmvc.services.BeerCSVService;
+import guru.springframework.spring6restmvc.repositories.DataSeedRepository;
+import guru.springframework.spring6restmvc.services.BeerImportService;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ResourceUtils;
-
+import org.springframework.util.StopWatch;
+
+/**
+ * Seeds the sample beers and customers. The revision of the seed data is stored in {@link DataSeed}, so once a data
+ * set has been loaded later boots skip seeding after a single primary key lookup, without reading the CSV file.
+ * With {@code app.seed.async=true}
+ * seeding runs on a background thread and the application accepts traffic straight away.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
+  static final String SEED_NAME = "sample-data";
+
+  private static final String BEER_CSV = "csvdata/beer.csv";
+
+  // bump when csvdata/beer.csv or the built-in beers or customers below change, so existing databases are re-checked;
+  // see csvdata/README.md
+  static final String SEED_REVISION = "2";
+
   private final BeerRepository beerRepository;
   
   private final CustomerRepository customerRepository;
+
+  private final DataSeedRepository dataSeedRepository;
   
-  private final BeerCSVService beerCSVService;
-  
+  private final BeerImportService beerImportService;
+
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  @Value("${app.seed.async:false}")
+  private boolean async;
   
-  @Transactional
   @Override
   public void run(String... args) throws Exception {
-    this.loadBeerData();
-    this.loadCsvData();
-    this.loadCustomerData();
+    if (!this.async) {
+      this.seed();
+      return;
+    }
+
+    new SimpleAsyncTaskExecutor("data-seed-").execute(() -> {
+      try {
+        final var beersSeeded = this.seed();
+
+        if (beersSeeded > 0) {
+          this.applicationEventPublisher.publishEvent(new DataSeededEvent(beersSeeded));
+        }
+      } catch (IOException | RuntimeException e) {
+        log.error("Background data seeding failed", e);
+      }
+    });
   }
 
-  private void loadCsvData() throws FileNotFoundException {
-    if (beerRepository.count() < 10){
-      File file = ResourceUtils.getFile("classpath:csvdata/beer.csv");
-
-      List<BeerCSVRecord> recs = this.beerCSVService.convertCSV(file);
-
-      recs.forEach(beerCSVRecord -> {
-        BeerStyle beerStyle = switch (beerCSVRecord.getStyle()) {
-          case "American Pale Lager" -> BeerStyle.LAGER;
-          case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
-                  BeerStyle.ALE;
-          case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
-          case "American Porter" -> BeerStyle.PORTER;
-          case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
-          case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
-          case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
-          case "English Pale Ale" -> BeerStyle.PALE_ALE;
-          default -> BeerStyle.PILSNER;
-        };
-
-        beerRepository.save(Beer.builder()
-                .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
-                .beerStyle(beerStyle)
-                .price(BigDecimal.TEN)
-                .upc(beerCSVRecord.getRow().toString())
-                .quantityOnHand(beerCSVRecord.getCount())
-                .build());
-      });
+  long seed() throws IOException {
+    final var stopWatch = new StopWatch("data seed");
+
+    stopWatch.start("seed lookup");
+    final var dataSeed = this.dataSeedRepository.findById(SEED_NAME)
+        .orElseGet(() -> DataSeed.builder().name(SEED_NAME).build());
+    stopWatch.stop();
+
+    if (SEED_REVISION.equals(dataSeed.getRevision())) {
+      log.info("Seed data {} already loaded, skipped in {} ms", SEED_NAME, stopWatch.getTotalTimeMillis());
+      return 0;
     }
-  }
 
+    stopWatch.start("beer count");
+    final var beerCount = this.beerRepository.count();
+    stopWatch.stop();
 
+    var beersSeeded = 0L;
 
-  private void loadBeerData() {
-    if (this.beerRepository.count() == 0) {
-      final var lager = Beer.builder()
-          .beerName("Lager Classic")
-          .beerStyle(BeerStyle.LAGER)
-          .upc("12324")
-          .price(new BigDecimal("56.79"))
-          .quantityOnHand(10)
-          .createdDate(LocalDateTime.now())
-          .updatedDate(LocalDateTime.now())
-          .build();
-
-      final var ale = Beer.builder()
-          .beerName("Ale Classic")
-          .beerStyle(BeerStyle.ALE)
-          .upc("52462")
-          .price(new BigDecimal("34.79"))
-          .quantityOnHand(6)
-          .createdDate(LocalDateTime.now())
-          .updatedDate(LocalDateTime.now())
-          .build();
-
-      final var pilsner = Beer.builder()
-          .beerName("Pilsner Classic")
-          .beerStyle(BeerStyle.PILSNER)
-          .upc("1532")
-          .price(new BigDecimal("77.99"))
-          .quantityOnHand(12)
-          .createdDate(LocalDateTime.now())
-          .updatedDate(LocalDateTime.now())
-          .build();
-
-      this.beerRepository.saveAll(List.of(lager, ale, pilsner));
+    if (beerCount == 0) {
+      stopWatch.start("beers");
+      beersSeeded += this.loadBeerData();
+      stopWatch.stop();
     }
+
+    if (beerCount < 10) {
+      stopWatch.start("csv beers");
+      beersSeeded += this.loadCsvData();
+      stopWatch.stop();
+    }
+
+    stopWatch.start("customers");
+    final var customersSeeded = this.loadCustomerData();
+    stopWatch.stop();
+
+    stopWatch.start("seed record");
+    dataSeed.setRevision(SEED_REVISION);
+    dataSeed.setRowCount(beersSeeded + customersSeeded);
+    this.dataSeedRepository.save(dataSeed);
+    stopWatch.stop();
+
+    log.info("Seeded {} beers and {} customers in {} ms\n{}", beersSeeded, customersSeeded,
+        stopWatch.getTotalTimeMillis(), stopWatch.prettyPrint());
+
+    return beersSeeded;
   }
 
-  private void loadCustomerData() {
-    if(this.customerRepository.count() == 0) {
-      final var oleg = Customer.builder()
-          .name("Pan Oleg")
-          .createdDateTime(LocalDateTime.now())
-          .lastUpdateDateTime(LocalDateTime.now())
-          .build();
-
-      final var pavlo = Customer.builder()
-          .name("Pan Pavlo")
-          .createdDateTime(LocalDateTime.now())
-          .lastUpdateDateTime(LocalDateTime.now())
-          .build();
-
-      final var zlishchev = Customer.builder()
-          .name("Old Zlishchev")
-          .createdDateTime(LocalDateTime.now())
-          .lastUpdateDateTime(LocalDateTime.now())
-          .build();
-
-      this.customerRepository.saveAll(List.of(oleg, pavlo, zlishchev));
+  private long loadCsvData() throws IOException {
+    try (var reader = new InputStreamReader(new ClassPathResource(BEER_CSV).getInputStream(), StandardCharsets.UTF_8)) {
+      return this.beerImportService.importBeers(reader).getRowsImported();
     }
   }
+
+  private long loadBeerData() {
+    final var lager = Beer.builder()
+        .beerName("Lager Classic")
+        .beerStyle(BeerStyle.LAGER)
+        .upc("12324")
+        .price(new BigDecimal("56.79"))
+        .quantityOnHand(10)
+        .createdDate(LocalDateTime.now())
+        .updatedDate(LocalDateTime.now())
+        .build();
+
+    final var ale = Beer.builder()
+        .beerName("Ale Classic")
+        .beerStyle(BeerStyle.ALE)
+        .upc("52462")
+        .price(new BigDecimal("34.79"))
+        .quantityOnHand(6)
+        .createdDate(LocalDateTime.now())
+        .updatedDate(LocalDateTime.now())
+        .build();
+
+    final var pilsner = Beer.builder()
+        .beerName("Pilsner Classic")
+        .beerStyle(BeerStyle.PILSNER)
+        .upc("1532")
+        .price(new BigDecimal("77.99"))
+        .quantityOnHand(12)
+        .createdDate(LocalDateTime.now())
+        .updatedDate(LocalDateTime.now())
+        .build();
+
+    return this.beerRepository.saveAll(List.of(lager, ale, pilsner)).size();
+  }
+
+  private long loadCustomerData() {
+    if (this.customerRepository.count() > 0) {
+      return 0;
+    }
+
+    final var oleg = Customer.builder()
+        .name("Pan Oleg")
+        .createdDateTime(LocalDateTime.now())
+        .lastUpdateDateTime(LocalDateTime.now())
+        .build();
+
+    final var pavlo = Customer.builder()
+        .name("Pan Pavlo")
+        .createdDateTime(LocalDateTime.now())
+        .lastUpdateDateTime(LocalDateTime.now())
+        .build();
+
+    final var zlishchev = Customer.builder()
+        .name("Old Zlishchev")
+        .createdDateTime(LocalDateTime.now())
+        .lastUpdateDateTime(LocalDateTime.now())
+        .build();
+
+    return this.customerRepository.saveAll(List.of(oleg, pavlo, zlishchev)).size();
+  }
 }
@@ -0,0 +1,7 @@
+package guru.springframework.spring6restmvc.bootstrap;
+
+/**
+ * Published once background seeding has committed, for components that snapshot beer data at startup.
+ */
+public record DataSeededEvent(long beersSeeded) {
+}
@@ -0,0 +1,82 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BEER_CACHE = "beerCache";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec}") final String caffeineSpec) {
+        final var cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new VersionAwareCaffeineCache(name, cache, this.isAllowNullValues());
+            }
+        };
+
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(caffeineSpec));
+        // a lookup of an unknown id must not take a slot for the whole TTL and push real beers out
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(BEER_CACHE));
+
+        // puts and evictions issued inside a transaction are applied only after it commits
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Never replaces a cached beer with one carrying an older {@code @Version}, so a slow writer finishing
+     * after a newer write cannot put a stale copy back into the cache. Synchronized loads that find nothing are
+     * returned without being cached.
+     */
+    static class VersionAwareCaffeineCache extends CaffeineCache {
+
+        VersionAwareCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            this.getNativeCache().asMap().merge(key, this.toStoreValue(value),
+                    (cached, incoming) -> isOlder(incoming, cached) ? cached : incoming);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            // concurrent loads of one key still wait for a single call, but a null result leaves no entry behind
+            return (T) this.fromStoreValue(this.getNativeCache().asMap().computeIfAbsent(key, missingKey -> {
+                try {
+                    final var value = valueLoader.call();
+
+                    return value == null ? null : this.toStoreValue(value);
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(missingKey, valueLoader, e);
+                }
+            }));
+        }
+
+        private static boolean isOlder(final Object incoming, final Object cached) {
+            return incoming instanceof BeerDTO incomingBeer
+                    && cached instanceof BeerDTO cachedBeer
+                    && incomingBeer.getVersion() != null
+                    && cachedBeer.getVersion() != null
+                    && incomingBeer.getVersion() < cachedBeer.getVersion();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers successfully decoded tokens, keyed by a SHA-256 of the token, until their {@code exp}, so a client
+ * reusing a bearer token pays for signature verification and claim validation once. Rejected tokens and tokens
+ * without an expiry are never cached. Decode time is recorded as {@code security.jwt.decode} with an
+ * {@code outcome} of {@code cached}, {@code verified} or {@code rejected}.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    static final String DECODE_TIMER = "security.jwt.decode";
+
+    private final JwtDecoder delegate;
+
+    private final Clock clock;
+
+    private final Cache<String, Jwt> cache;
+
+    private final Timer cachedTimer;
+
+    private final Timer verifiedTimer;
+
+    private final Timer rejectedTimer;
+
+    public CachingJwtDecoder(final JwtDecoder delegate, final long maximumSize, final MeterRegistry meterRegistry,
+                             final Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilExpiresAt())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+        this.cachedTimer = decodeTimer(meterRegistry, "cached");
+        this.verifiedTimer = decodeTimer(meterRegistry, "verified");
+        this.rejectedTimer = decodeTimer(meterRegistry, "rejected");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "jwtCache");
+    }
+
+    @Override
+    public Jwt decode(final String token) throws JwtException {
+        final var startNanos = System.nanoTime();
+        final var key = hash(token);
+
+        final var cached = this.cache.getIfPresent(key);
+
+        if (cached != null && cached.getExpiresAt().isAfter(this.clock.instant())) {
+            this.cachedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        final Jwt jwt;
+
+        try {
+            jwt = this.delegate.decode(token);
+        } catch (JwtException e) {
+            this.rejectedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+
+        if (jwt.getExpiresAt() != null) {
+            this.cache.put(key, jwt);
+        }
+
+        this.verifiedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        return jwt;
+    }
+
+    private static Timer decodeTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(DECODE_TIMER)
+                .description("Time to turn a bearer token into a validated Jwt")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String hash(final String token) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class UntilExpiresAt implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Jwt jwt, final long currentTime) {
+            return Math.max(0L, Duration.between(CachingJwtDecoder.this.clock.instant(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Jwt jwt, final long currentTime, final long currentDuration) {
+            return this.expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Jwt jwt, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
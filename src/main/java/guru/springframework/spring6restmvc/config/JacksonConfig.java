@@ -0,0 +1,18 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces reflective getter and setter calls of the Lombok DTOs with generated lambdas once a type is first
+     * serialized, cutting per-property overhead on every JSON response.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,75 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Local copy of the issuer's JWK set. The set is fetched on first use and afterwards only by the scheduled
+ * {@link #refresh()}, which keeps serving the previous keys if the issuer is unreachable, so verifying a token never
+ * waits on the issuer. A token signed with a key the issuer rotated in fails until the next refresh.
+ */
+@Slf4j
+public class JwkSetCache implements JWKSource<SecurityContext> {
+
+    private final RestOperations restOperations;
+
+    private final String jwkSetUri;
+
+    private volatile JWKSet jwkSet;
+
+    public JwkSetCache(final RestOperations restOperations, final String jwkSetUri) {
+        this.restOperations = restOperations;
+        this.jwkSetUri = jwkSetUri;
+    }
+
+    @Override
+    public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context) throws KeySourceException {
+        var current = this.jwkSet;
+
+        if (current == null) {
+            current = this.load();
+        }
+
+        return jwkSelector.select(current);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwk-set-refresh-interval}")
+    public void refresh() {
+        if (this.jwkSet == null) {
+            return;
+        }
+
+        try {
+            this.jwkSet = this.fetch();
+        } catch (RestClientException | ParseException e) {
+            log.warn("Could not refresh JWK set from {}, keeping the cached keys", this.jwkSetUri, e);
+        }
+    }
+
+    private synchronized JWKSet load() throws KeySourceException {
+        if (this.jwkSet == null) {
+            try {
+                this.jwkSet = this.fetch();
+            } catch (RestClientException | ParseException e) {
+                throw new KeySourceException("Could not fetch JWK set from " + this.jwkSetUri, e);
+            }
+        }
+
+        return this.jwkSet;
+    }
+
+    private JWKSet fetch() throws ParseException {
+        return JWKSet.parse(this.restOperations.getForObject(this.jwkSetUri, String.class));
+    }
+}
@@ -0,0 +1,126 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per client address token bucket for the anonymous read chain. Each address may burst up to {@code capacity}
+ * requests and is refilled at {@code refillPerSecond}; requests over the limit get a 429 with {@code Retry-After}.
+ * IPv6 clients share one bucket per /64, the smallest prefix a single subscriber is usually assigned, so rotating
+ * through the addresses of one network neither resets the limit nor floods the bucket cache.
+ * Buckets of idle addresses are dropped once they would be full again, so memory stays bounded by the number of
+ * recently active clients.
+ */
+@Slf4j
+public class PublicReadRateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long capacity;
+
+    private final double refillPerNano;
+
+    private final Ticker ticker;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public PublicReadRateLimitFilter(final long capacity, final double refillPerSecond, final long maximumClients,
+                                     final Ticker ticker) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacity / this.refillPerNano)))
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final var clientAddress = clientKey(request.getRemoteAddr());
+        final var bucket = this.buckets.get(clientAddress, address -> new TokenBucket(this.capacity, this.ticker.read()));
+        final var waitNanos = bucket.tryConsume(this.ticker.read());
+
+        if (waitNanos > 0) {
+            log.debug("Rate limited anonymous read from {}", clientAddress);
+
+            // written directly rather than with sendError, so no error dispatch runs for a throttled client
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    static String clientKey(final String remoteAddr) {
+        if (remoteAddr == null || remoteAddr.indexOf(':') < 0) {
+            return remoteAddr;
+        }
+
+        try {
+            // a literal with a colon is parsed as IPv6 without a lookup; IPv4-mapped addresses come back as IPv4
+            final var address = InetAddress.getByName(remoteAddr);
+
+            if (!(address instanceof Inet6Address)) {
+                return address.getHostAddress();
+            }
+
+            final var prefix = Arrays.copyOf(address.getAddress(), 16);
+            Arrays.fill(prefix, 8, 16, (byte) 0);
+
+            return InetAddress.getByAddress(prefix).getHostAddress() + "/64";
+        } catch (UnknownHostException e) {
+            return remoteAddr;
+        }
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+
+        private long lastRefillNanos;
+
+        private TokenBucket(final long tokens, final long nowNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanos until the next token is available
+         */
+        private synchronized long tryConsume(final long nowNanos) {
+            final var refillPerNano = PublicReadRateLimitFilter.this.refillPerNano;
+
+            this.tokens = Math.min(PublicReadRateLimitFilter.this.capacity,
+                    this.tokens + (nowNanos - this.lastRefillNanos) * refillPerNano);
+            this.lastRefillNanos = nowNanos;
+
+            if (this.tokens >= 1) {
+                this.tokens--;
+                return 0;
+            }
+
+            return (long) Math.ceil((1 - this.tokens) / refillPerNano);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+
+/**
+ * Opt-in ({@code app.security.public-read.enabled=true}) anonymous read tier for the beer catalogue. Listing and
+ * get-by-id are matched ahead of the authenticated chain in {@link SpringSecConfig} and served by a slim chain with
+ * no session, CSRF, request cache or bearer token handling, rate limited per client address. Every other request,
+ * including the beer export and any write, still needs a JWT.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.security.public-read.enabled", havingValue = "true")
+public class PublicReadSecurityConfig {
+
+    static final String BEER_PATH_UUID = BeerController.BEER_PATH + "/{beerId:[0-9a-fA-F-]{36}}";
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain publicReadFilterChain(HttpSecurity http,
+            @Value("${app.security.public-read.burst:60}") final long burst,
+            @Value("${app.security.public-read.requests-per-second:20}") final double requestsPerSecond,
+            @Value("${app.security.public-read.max-tracked-clients:100000}") final long maxTrackedClients) throws Exception {
+        http.securityMatcher(new OrRequestMatcher(
+                        new AntPathRequestMatcher(BeerController.BEER_PATH, HttpMethod.GET.name()),
+                        new AntPathRequestMatcher(BeerController.BEER_SLICE_PATH, HttpMethod.GET.name()),
+                        new AntPathRequestMatcher(BeerController.BEER_STREAM_PATH, HttpMethod.GET.name()),
+                        new AntPathRequestMatcher(BEER_PATH_UUID, HttpMethod.GET.name())))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .addFilterBefore(new PublicReadRateLimitFilter(burst, requestsPerSecond, maxTrackedClients, Ticker.systemTicker()),
+                        SecurityContextHolderFilter.class);
+
+        return http.build();
+    }
+}
@@ -0,0 +1,77 @@
+package guru.springframework.spring6restmvc.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line of a request with its request id and echoes the id back to the caller. When
+ * {@code app.logging.request-debug-header.enabled=true}, sending {@code X-Request-Debug: true} marks the request so
+ * that the prod logback configuration lets its DEBUG output through, including the request summary logged here. The
+ * header is checked before authentication, so any client can send it; the switch is off by default and only meant to
+ * be turned on while diagnosing a deployment that is not publicly reachable.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_DEBUG_HEADER = "X-Request-Debug";
+
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+    public static final String REQUEST_DEBUG_MDC_KEY = "requestDebug";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final boolean requestDebugHeaderEnabled;
+
+    public RequestLoggingFilter(@Value("${app.logging.request-debug-header.enabled:false}") final boolean requestDebugHeaderEnabled) {
+        this.requestDebugHeaderEnabled = requestDebugHeaderEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final var requestId = this.resolveRequestId(request.getHeader(REQUEST_ID_HEADER));
+        final var startNanos = System.nanoTime();
+
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+
+        if (this.requestDebugHeaderEnabled && Boolean.parseBoolean(request.getHeader(REQUEST_DEBUG_HEADER))) {
+            MDC.put(REQUEST_DEBUG_MDC_KEY, "true");
+        }
+
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (log.isDebugEnabled()) {
+                log.debug("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+
+            MDC.remove(REQUEST_DEBUG_MDC_KEY);
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    private String resolveRequestId(final String requestId) {
+        // the id ends up in every log line, so anything a client could use to forge log entries is replaced
+        return requestId != null && VALID_REQUEST_ID.matcher(requestId).matches() ? requestId : UUID.randomUUID().toString();
+    }
+}
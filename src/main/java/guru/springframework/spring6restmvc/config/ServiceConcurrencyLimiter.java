@@ -0,0 +1,61 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests can be inside the JPA services at once. With virtual threads nothing else bounds the
+ * number of concurrent callers, so without it every waiting client would queue on the connection pool and pin a
+ * carrier thread inside the JDBC driver. Callers that cannot get a permit within the timeout get a 503.
+ */
+@Slf4j
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceConcurrencyLimiter {
+
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Semaphore permits;
+
+    private final Duration acquireTimeout;
+
+    public ServiceConcurrencyLimiter(final int maxConcurrentCalls, final Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Around("execution(public * guru.springframework.spring6restmvc.services.impl.*JPA.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        // a service calling another service through its proxy already holds a permit
+        if (HOLDS_PERMIT.get()) {
+            return joinPoint.proceed();
+        }
+
+        if (!this.permits.tryAcquire(this.acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.debug("No service permit within {} for {}", this.acquireTimeout, joinPoint.getSignature().toShortString());
+            throw new ServiceBusyException("Too many concurrent requests");
+        }
+
+        HOLDS_PERMIT.set(Boolean.TRUE);
+
+        try {
+            return joinPoint.proceed();
+        } finally {
+            HOLDS_PERMIT.remove();
+            this.permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return this.permits.availablePermits();
+    }
+}
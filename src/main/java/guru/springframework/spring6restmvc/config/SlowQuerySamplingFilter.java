@@ -0,0 +1,35 @@
+package guru.springframework.spring6restmvc.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through only a sample of Hibernate's slow query log lines, so a database slowdown that makes every statement
+ * cross {@code LOG_QUERIES_SLOWER_THAN_MS} does not also flood the log. Configured in the prod section of
+ * {@code logback-spring.xml}; a {@code sampleRate} of 1 keeps every line, 0 drops them all. Other loggers are not
+ * affected.
+ */
+public class SlowQuerySamplingFilter extends TurboFilter {
+
+    public static final String SLOW_QUERY_LOGGER = "org.hibernate.SQL_SLOW";
+
+    private double sampleRate = 1.0;
+
+    public void setSampleRate(final double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!SLOW_QUERY_LOGGER.equals(logger.getName()) || this.sampleRate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+
+        return ThreadLocalRandom.current().nextDouble() < this.sampleRate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,36 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks {@link BeerDTO} with the {@link #FILTER_ID} property filter used for {@code ?fields=} sparse fieldsets (see
+ * {@link SparseFieldsResponseBodyAdvice}). Unless a response sets that filter, the lenient default provider resolves
+ * it to nothing and every property is written as before.
+ */
+@Component
+public class SparseFieldsModule extends SimpleModule {
+
+    public static final String FILTER_ID = "sparseFields";
+
+    @Override
+    public void setupModule(final SetupContext context) {
+        super.setupModule(context);
+
+        context.setMixInAnnotations(BeerDTO.class, SparseFieldsMixIn.class);
+
+        final ObjectMapper objectMapper = context.getOwner();
+
+        if (objectMapper.getSerializationConfig().getFilterProvider() == null) {
+            objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        }
+    }
+
+    @JsonFilter(FILTER_ID)
+    private interface SparseFieldsMixIn {
+    }
+}
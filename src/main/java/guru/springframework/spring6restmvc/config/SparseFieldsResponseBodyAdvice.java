@@ -0,0 +1,61 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Set;
+
+/**
+ * Applies {@code ?fields=id,beerName,price} to the beers in a JSON response, wherever they are nested, so list
+ * clients only pay for the properties they use. Requests without the parameter are written untouched.
+ */
+@ControllerAdvice
+public class SparseFieldsResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String FIELDS_PARAM = "fields";
+
+    /**
+     * @return the property names listed in a {@code fields} parameter, or {@code null} if it is missing or blank
+     */
+    public static Set<String> selectedFields(final String fields) {
+        return StringUtils.hasText(fields) ? StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(fields)) : null;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+
+        final var selected = selectedFields(servletRequest.getServletRequest().getParameter(FIELDS_PARAM));
+
+        if (selected == null) {
+            return body;
+        }
+
+        final var mappingJacksonValue = body instanceof MappingJacksonValue value ? value : new MappingJacksonValue(body);
+
+        mappingJacksonValue.setFilters(new SimpleFilterProvider().setFailOnUnknownId(false)
+                .addFilter(SparseFieldsModule.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+
+        return mappingJacksonValue;
+    }
+}
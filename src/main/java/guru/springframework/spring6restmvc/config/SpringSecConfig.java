@@ -1,10 +1,25 @@
 package guru.springframework.spring6restmvc.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
 
 @Configuration
 public class SpringSecConfig {
@@ -12,6 +27,8 @@ public class SpringSecConfig {
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests(authorize -> {
+            // error dispatches only render the status of a request that was already authorized by its own chain
+            authorize.dispatcherTypeMatchers(DispatcherType.ERROR).permitAll();
             authorize.anyRequest().authenticated();
                 })
                 .oauth2ResourceServer(httpSecurityOAuth2ResourceServerConfigurer -> {
@@ -20,4 +37,26 @@ public class SpringSecConfig {
         
         return http.build();
     }
+
+    @Bean
+    public JwkSetCache jwkSetCache(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") final String jwkSetUri) {
+        return new JwkSetCache(new RestTemplate(), jwkSetUri);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(@Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") final String issuerUri,
+                                 @Value("${app.security.jwt.cache-size}") final long cacheSize,
+                                 final JwkSetCache jwkSetCache, final ObjectProvider<MeterRegistry> meterRegistry) {
+        final var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetCache));
+        // claims are checked by the Spring validator below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        final var nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        nimbusJwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+
+        return new CachingJwtDecoder(nimbusJwtDecoder, cacheSize, meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                Clock.systemUTC());
+    }
 }
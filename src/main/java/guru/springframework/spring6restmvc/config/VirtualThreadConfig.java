@@ -0,0 +1,65 @@
+package guru.springframework.spring6restmvc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in ({@code app.virtual-threads.enabled=true}) mode that runs Tomcat request processing and MVC async work on
+ * virtual threads. Needs a Java 21 runtime; the executor is looked up reflectively so the code still compiles for
+ * Java 17 (build with {@code -Pjava21} to target 21 directly).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        log.info("Serving requests on virtual threads");
+
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(final ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(final ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public ServiceConcurrencyLimiter serviceConcurrencyLimiter(
+            @Value("${app.virtual-threads.max-concurrent-service-calls:${spring.datasource.hikari.maximum-pool-size:10}}") final int maxConcurrentCalls,
+            @Value("${app.virtual-threads.service-permit-timeout:5s}") final Duration acquireTimeout) {
+        return new ServiceConcurrencyLimiter(maxConcurrentCalls, acquireTimeout);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            final var factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+
+            return (ExecutorService) factory.invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("app.virtual-threads.enabled requires Java 21, running on " + Runtime.version(), e);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+}
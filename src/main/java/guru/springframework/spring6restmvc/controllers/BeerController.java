@@ -1,15 +1,30 @@
 package guru.springframework.spring6restmvc.controllers;
 
+import guru.springframework.spring6restmvc.config.SparseFieldsResponseBodyAdvice;
 import guru.springframework.spring6restmvc.exception.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.InventoryAdjustmentDTO;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
+import guru.springframework.spring6restmvc.services.BeerBatchService;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import guru.springframework.spring6restmvc.services.BeerImportService;
 import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.InventoryDeltaService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,7 +35,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -30,8 +52,20 @@ public class BeerController {
     
     public static final String BEER_PATH = "/api/v1/beer";
     public static final String BEER_PATH_ID = BEER_PATH + "/{beerId}";
+    public static final String BEER_SLICE_PATH = BEER_PATH + "/slice";
+    public static final String BEER_STREAM_PATH = BEER_PATH + "/stream";
+    public static final String BEER_IMPORT_PATH = BEER_PATH + "/import";
+    public static final String BEER_BATCH_PATH = BEER_PATH + "/batch";
+    public static final String BEER_EXPORT_PATH = BEER_PATH + "/export";
+    public static final String BEER_INVENTORY_PATH = BEER_PATH_ID + "/inventory";
+    
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
     
     private final BeerService beerService;
+    private final BeerImportService beerImportService;
+    private final BeerBatchService beerBatchService;
+    private final BeerExportService beerExportService;
+    private final InventoryDeltaService inventoryDeltaService;
     
     @PatchMapping(BEER_PATH_ID)
     public ResponseEntity<BeerDTO> patchBeer(@PathVariable UUID beerId, @RequestBody BeerDTO beer) {
@@ -69,19 +103,110 @@ public class BeerController {
         return new ResponseEntity<>(savedBeer, headers ,HttpStatus.CREATED);
     }
     
+    @PostMapping(value = BEER_IMPORT_PATH, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BeerImportResultDTO> importBeers(@RequestParam("file") MultipartFile file) throws IOException {
+        try (var reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return new ResponseEntity<>(this.beerImportService.importBeers(reader), HttpStatus.OK);
+        }
+    }
+    
+    @PostMapping(BEER_BATCH_PATH)
+    public ResponseEntity<List<BeerBatchResultDTO>> processBatch(@RequestBody List<BeerBatchItemDTO> items) {
+        return new ResponseEntity<>(this.beerBatchService.processBatch(items), HttpStatus.OK);
+    }
+    
+    @GetMapping(BEER_EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(defaultValue = "NDJSON") BeerExportFormat format) {
+        final StreamingResponseBody body = outputStream -> this.beerExportService.exportBeers(format, outputStream);
+        
+        if (format == BeerExportFormat.CSV) {
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("beers.csv").build().toString())
+                    .body(body);
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     @GetMapping(BEER_PATH)
-    public Page<BeerDTO> getBeerList(@RequestParam(required = false) String beerName,
-                                     @RequestParam(required = false) BeerStyle beerStyle,
-                                     @RequestParam(required = false) Boolean showInventory,
-                                     @RequestParam(required = false) Integer pageNumber,
-                                     @RequestParam(required = false) Integer pageSize) {
-        return beerService.getBeerPage(beerName, beerStyle, showInventory, pageNumber, pageSize);
+    public PageDTO<BeerDTO> getBeerList(@RequestParam(required = false) String beerName,
+                                        @RequestParam(required = false) BeerStyle beerStyle,
+                                        @RequestParam(required = false) Boolean showInventory,
+                                        @RequestParam(required = false) Integer pageNumber,
+                                        @RequestParam(required = false) Integer pageSize) {
+        return PageDTO.of(beerService.getBeerPage(beerName, beerStyle, showInventory, pageNumber, pageSize));
+    }
+    
+    /**
+     * Same page and JSON as {@link #getBeerList}, including {@code ?fields=}, written straight from the query rows
+     * without building DTOs.
+     */
+    @GetMapping(BEER_STREAM_PATH)
+    public void streamBeerList(@RequestParam(required = false) String beerName,
+                               @RequestParam(required = false) BeerStyle beerStyle,
+                               @RequestParam(required = false) Boolean showInventory,
+                               @RequestParam(required = false) Integer pageNumber,
+                               @RequestParam(required = false) Integer pageSize,
+                               @RequestParam(name = SparseFieldsResponseBodyAdvice.FIELDS_PARAM, required = false) String fields,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        
+        this.beerService.getBeerPageJson(beerName, beerStyle, showInventory, pageNumber, pageSize)
+                .writeTo(response.getOutputStream(), SparseFieldsResponseBodyAdvice.selectedFields(fields));
+    }
+    
+    @GetMapping(BEER_SLICE_PATH)
+    public SliceDTO<BeerDTO> getBeerSlice(@RequestParam(required = false) String beerName,
+                                          @RequestParam(required = false) BeerStyle beerStyle,
+                                          @RequestParam(required = false) Boolean showInventory,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer pageSize) {
+        return beerService.getBeerSlice(beerName, beerStyle, showInventory, cursor, pageSize);
     }
     
     @GetMapping(BEER_PATH_ID)
-    public BeerDTO getBeerById(@PathVariable final UUID beerId) {
-        log.info("Get beer by Id in Controller. Id: {} modified", beerId);
+    public ResponseEntity<BeerDTO> getBeerById(@PathVariable final UUID beerId, final WebRequest webRequest) {
+        log.debug("Get beer by Id in Controller. Id: {}", beerId);
+        
+        // the delta is read after the beer, so it can leave out whatever a flush committed in between
+        if (StringUtils.hasText(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            final var version = this.beerService.getBeerVersion(beerId).orElseThrow(NotFoundException::new);
+            
+            if (webRequest.checkNotModified(EntityTags.of(beerId, version,
+                    this.inventoryDeltaService.pendingDelta(beerId, version)))) {
+                return null;
+            }
+        }
+        
+        final var beer = this.beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+        final var pendingDelta = this.inventoryDeltaService.pendingDelta(beerId, beer.getVersion());
+        
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(beer.getId(), beer.getVersion(), pendingDelta))
+                .body(this.withPendingDelta(beer, pendingDelta));
+    }
+    
+    @PostMapping(BEER_INVENTORY_PATH)
+    public ResponseEntity<BeerDTO> adjustInventory(@PathVariable UUID beerId,
+                                                   @RequestBody @Validated InventoryAdjustmentDTO adjustment) {
+        final var beer = this.beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+        
+        this.inventoryDeltaService.recordDelta(beerId, adjustment.getDelta());
+        
+        return new ResponseEntity<>(this.withPendingDelta(beer,
+                this.inventoryDeltaService.pendingDelta(beerId, beer.getVersion())), HttpStatus.ACCEPTED);
+    }
+    
+    private BeerDTO withPendingDelta(final BeerDTO beer, final int pendingDelta) {
+        if (pendingDelta == 0) {
+            return beer;
+        }
         
-        return this.beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+        return beer.toBuilder()
+                .quantityOnHand((beer.getQuantityOnHand() == null ? 0 : beer.getQuantityOnHand()) + pendingDelta)
+                .build();
     }
 }
@@ -0,0 +1,70 @@
+package guru.springframework.spring6restmvc.controllers;
+
+import guru.springframework.spring6restmvc.exception.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.CustomerOrderSummaryDTO;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class BeerOrderController {
+
+    public static final String BEER_ORDER_PATH = "/api/v1/orders";
+    public static final String BEER_ORDER_PATH_ID = BEER_ORDER_PATH + "/{beerOrderId}";
+    public static final String CUSTOMER_ORDERS_PATH = CustomerController.CUSTOMER_PATH_ID + "/orders";
+    public static final String CUSTOMER_ORDER_SUMMARY_PATH = CUSTOMER_ORDERS_PATH + "/summary";
+
+    private final BeerOrderService beerOrderService;
+
+    @PostMapping(BEER_ORDER_PATH)
+    public ResponseEntity<BeerOrderDTO> placeOrder(@RequestBody @Validated BeerOrderCreateDTO beerOrderCreate) {
+        final var savedBeerOrder = this.beerOrderService.placeOrder(beerOrderCreate);
+
+        final var headers = new HttpHeaders();
+        headers.add("Location", BEER_ORDER_PATH + "/" + savedBeerOrder.getId());
+
+        return new ResponseEntity<>(savedBeerOrder, headers, HttpStatus.CREATED);
+    }
+
+    @GetMapping(BEER_ORDER_PATH)
+    public PageDTO<BeerOrderDTO> getBeerOrderList(@RequestParam(required = false) UUID customerId,
+                                                  @RequestParam(required = false) Integer pageNumber,
+                                                  @RequestParam(required = false) Integer pageSize) {
+        return PageDTO.of(this.beerOrderService.getBeerOrderPage(customerId, pageNumber, pageSize));
+    }
+
+    @GetMapping(CUSTOMER_ORDERS_PATH)
+    public PageDTO<BeerOrderDTO> getCustomerOrderList(@PathVariable UUID customerId,
+                                                      @RequestParam(required = false) Integer pageNumber,
+                                                      @RequestParam(required = false) Integer pageSize) {
+        return PageDTO.of(this.beerOrderService.getCustomerOrderPage(customerId, pageNumber, pageSize)
+                .orElseThrow(NotFoundException::new));
+    }
+
+    @GetMapping(CUSTOMER_ORDER_SUMMARY_PATH)
+    public CustomerOrderSummaryDTO getCustomerOrderSummary(@PathVariable UUID customerId) {
+        return this.beerOrderService.getCustomerOrderSummary(customerId).orElseThrow(NotFoundException::new);
+    }
+
+    @GetMapping(BEER_ORDER_PATH_ID)
+    public BeerOrderDTO getBeerOrderById(@PathVariable UUID beerOrderId) {
+        return this.beerOrderService.getBeerOrderById(beerOrderId).orElseThrow(NotFoundException::new);
+    }
+}
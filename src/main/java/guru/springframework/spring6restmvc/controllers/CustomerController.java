@@ -1,13 +1,19 @@
 package guru.springframework.spring6restmvc.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.spring6restmvc.exception.NotFoundException;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
 import guru.springframework.spring6restmvc.services.CustomerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,9 +22,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -29,8 +37,14 @@ public class CustomerController {
     public static final String CUSTOMER_PATH = "/api/v1/customers";
 
     public static final String CUSTOMER_PATH_ID = CUSTOMER_PATH + "/{customerId}";
+
+    public static final String CUSTOMER_SLICE_PATH = CUSTOMER_PATH + "/slice";
+
+    public static final String CUSTOMER_STREAM_PATH = CUSTOMER_PATH + "/stream";
     
     private final CustomerService customerService;
+
+    private final ObjectMapper objectMapper;
     
     @PatchMapping(CUSTOMER_PATH_ID)
     public ResponseEntity<CustomerDTO> patchCustomer(@PathVariable UUID customerId, @RequestBody CustomerDTO customer) {
@@ -57,8 +71,41 @@ public class CustomerController {
     }
     
     @GetMapping(CUSTOMER_PATH)
-    public List<CustomerDTO> getCustomersList(){
-        return this.customerService.getCustomersList();
+    public PageDTO<CustomerDTO> getCustomerList(@RequestParam(required = false) String name,
+                                                @RequestParam(required = false) String email,
+                                                @RequestParam(required = false) Integer pageNumber,
+                                                @RequestParam(required = false) Integer pageSize) {
+        return PageDTO.of(this.customerService.getCustomerPage(name, email, pageNumber, pageSize));
+    }
+
+    @GetMapping(CUSTOMER_SLICE_PATH)
+    public SliceDTO<CustomerDTO> getCustomerSlice(@RequestParam(required = false) String name,
+                                                  @RequestParam(required = false) String email,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer pageSize) {
+        return this.customerService.getCustomerSlice(name, email, cursor, pageSize);
+    }
+
+    @GetMapping(value = CUSTOMER_STREAM_PATH, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers(@RequestParam(required = false) String name,
+                                                                 @RequestParam(required = false) String email) {
+        final var writer = this.objectMapper.writerFor(CustomerDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        final StreamingResponseBody body = outputStream -> {
+            try (var customers = this.customerService.streamCustomers(name, email)) {
+                final var iterator = customers.iterator();
+
+                while (iterator.hasNext()) {
+                    writer.writeValue(outputStream, iterator.next());
+                    outputStream.write('\n');
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping(CUSTOMER_PATH)
@@ -72,7 +119,19 @@ public class CustomerController {
     }
     
     @GetMapping(CUSTOMER_PATH_ID)
-    public CustomerDTO getCustomerById(@PathVariable UUID customerId){
-        return this.customerService.getCustomerById(customerId).orElseThrow(NotFoundException::new);
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable UUID customerId, WebRequest webRequest){
+        if (StringUtils.hasText(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            final var version = this.customerService.getCustomerVersion(customerId).orElseThrow(NotFoundException::new);
+
+            if (webRequest.checkNotModified(EntityTags.of(customerId, version))) {
+                return null;
+            }
+        }
+
+        final var customer = this.customerService.getCustomerById(customerId).orElseThrow(NotFoundException::new);
+
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(customer.getId(), customer.getVersion()))
+                .body(customer);
     }
 }
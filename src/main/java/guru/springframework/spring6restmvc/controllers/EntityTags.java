@@ -0,0 +1,27 @@
+package guru.springframework.spring6restmvc.controllers;
+
+import java.util.UUID;
+
+/**
+ * Strong entity tags built from an entity id and its {@code @Version}, so any committed change produces a new tag.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(final UUID id, final Integer version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Tag for a representation that also includes inventory deltas not yet written to the entity.
+     */
+    static String of(final UUID id, final Integer version, final int pendingDelta) {
+        if (pendingDelta == 0) {
+            return of(id, version);
+        }
+
+        return "\"" + id + "-" + version + "+" + pendingDelta + "\"";
+    }
+}
@@ -1,8 +1,10 @@
 package guru.springframework.spring6restmvc.enteties;
 
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.search.BeerNameIndexListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -22,6 +24,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -39,15 +43,20 @@ import java.util.UUID;
 @Getter
 @Builder
 @Entity
+@EntityListeners(BeerNameIndexListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
+
+    // beers themselves stay out of the second-level cache, since BeerInventoryRepository updates their rows with JDBC
+    // batches Hibernate does not see; only the category links, which are written through Hibernate alone, are cached
+    public static final String CATEGORIES_CACHE_REGION = "beer-categories";
     
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", nullable = false, updatable = false)
+    @GenericGenerator(name = "UUID", strategy = "guru.springframework.spring6restmvc.enteties.UuidV7Generator")
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
     private UUID id;
     
     @Version
@@ -72,6 +81,7 @@ public class Beer {
     private BigDecimal price;
 
     @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Beer.CATEGORIES_CACHE_REGION)
     @ManyToMany
     @JoinTable(
             name = "beer_category",
@@ -95,7 +105,7 @@ public class Beer {
     }
 
     public void removeCategory(final Category category) {
-        this.getCategories().add(category);
-        category.getBeers().add(this);
+        this.getCategories().remove(category);
+        category.getBeers().remove(this);
     }
 }
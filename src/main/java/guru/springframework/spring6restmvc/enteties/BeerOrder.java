@@ -3,9 +3,13 @@ package guru.springframework.spring6restmvc.enteties;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Version;
@@ -14,6 +18,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -22,6 +27,7 @@ import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
@@ -29,14 +35,21 @@ import java.util.UUID;
 @Getter
 @Builder
 @Entity
+@NamedEntityGraph(name = BeerOrder.WITH_LINES_AND_SHIPMENT,
+        attributeNodes = {
+                @NamedAttributeNode(value = "beerOrderLines", subgraph = "beerOrderLines"),
+                @NamedAttributeNode("beerOrderShipment")},
+        subgraphs = @NamedSubgraph(name = "beerOrderLines", attributeNodes = @NamedAttributeNode("beer")))
 @NoArgsConstructor
 public class BeerOrder {
 
+    public static final String WITH_LINES_AND_SHIPMENT = "BeerOrder.withLinesAndShipment";
+
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", nullable = false, updatable = false)
+    @GenericGenerator(name = "UUID", strategy = "guru.springframework.spring6restmvc.enteties.UuidV7Generator")
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
     private UUID id;
 
     @Version
@@ -51,13 +64,14 @@ public class BeerOrder {
     
     private String customerRef;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
     
-    @OneToMany(mappedBy = "beerOrder")
-    private Set<BeerOrderLine> beerOrderLines;
+    @Builder.Default
+    @OneToMany(mappedBy = "beerOrder", cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
+    private Set<BeerOrderLine> beerOrderLines = new HashSet<>();
 
-    @OneToOne(cascade = CascadeType.PERSIST)
+    @OneToOne(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
     private BeerOrderShipment beerOrderShipment;
 
     public BeerOrder(UUID id, Integer version, LocalDateTime createdDate, LocalDateTime lastModifiedDate, 
@@ -68,18 +82,31 @@ public class BeerOrder {
         this.lastModifiedDate = lastModifiedDate;
         this.customerRef = customerRef;
         this.setCustomer(customer);
-        this.beerOrderLines = beerOrderLines;
+        this.beerOrderLines = beerOrderLines != null ? beerOrderLines : new HashSet<>();
         this.setBeerOrderShipment(beerOrderShipment);
     }
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
-        customer.getBeerOrders().add(this);
+
+        // only keep the inverse side in step when it is already loaded, otherwise placing an order
+        // would pull every previous order of the customer into memory
+        if (customer != null && Hibernate.isInitialized(customer.getBeerOrders())) {
+            customer.getBeerOrders().add(this);
+        }
     }
 
     public void setBeerOrderShipment(BeerOrderShipment beerOrderShipment) {
         this.beerOrderShipment = beerOrderShipment;
-        beerOrderShipment.setBeerOrder(this);
+
+        if (beerOrderShipment != null) {
+            beerOrderShipment.setBeerOrder(this);
+        }
+    }
+
+    public void addBeerOrderLine(BeerOrderLine beerOrderLine) {
+        beerOrderLine.setBeerOrder(this);
+        this.beerOrderLines.add(beerOrderLine);
     }
 
     public boolean isNew() {
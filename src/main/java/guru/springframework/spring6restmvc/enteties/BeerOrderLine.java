@@ -2,6 +2,7 @@ package guru.springframework.spring6restmvc.enteties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
@@ -31,9 +32,9 @@ public class BeerOrderLine {
 
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", nullable = false, updatable = false)
+    @GenericGenerator(name = "UUID", strategy = "guru.springframework.spring6restmvc.enteties.UuidV7Generator")
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
     private UUID id;
 
     @Version
@@ -50,10 +51,10 @@ public class BeerOrderLine {
     
     private Integer quantityAllocated;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private BeerOrder beerOrder;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Beer beer;
     
     public boolean isNew() {
@@ -2,6 +2,7 @@ package guru.springframework.spring6restmvc.enteties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
@@ -32,15 +33,15 @@ public class BeerOrderShipment {
 
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", nullable = false, updatable = false)
+    @GenericGenerator(name = "UUID", strategy = "guru.springframework.spring6restmvc.enteties.UuidV7Generator")
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
     private UUID id;
 
     @Version
     private Integer version;
     
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private BeerOrder beerOrder;
     
     @Column(unique = true)
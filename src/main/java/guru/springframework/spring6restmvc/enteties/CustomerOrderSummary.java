@@ -0,0 +1,43 @@
+package guru.springframework.spring6restmvc.enteties;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running totals of a customer's orders, bumped in the transaction that places each order, so the order summary is a
+ * single primary key read however long the customer's history is.
+ */
+@Setter
+@Getter
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderSummary {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
+    private UUID customerId;
+
+    @Version
+    private Integer version;
+
+    private long orderCount;
+
+    private long totalQuantity;
+
+    private LocalDateTime lastOrderDate;
+}
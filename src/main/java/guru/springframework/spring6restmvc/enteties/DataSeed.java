@@ -0,0 +1,42 @@
+package guru.springframework.spring6restmvc.enteties;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records which seed data set has been loaded, so later boots can skip seeding with a single primary key lookup.
+ */
+@Setter
+@Getter
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSeed {
+
+    @Id
+    @Column(length = 50, nullable = false, updatable = false)
+    private String name;
+
+    @Version
+    private Integer version;
+
+    // bumped by hand whenever the seed data changes, see csvdata/README.md
+    @Column(length = 64, nullable = false)
+    private String revision;
+
+    private long rowCount;
+
+    @UpdateTimestamp
+    private LocalDateTime seededDate;
+}
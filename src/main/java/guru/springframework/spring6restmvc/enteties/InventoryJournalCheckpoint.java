@@ -0,0 +1,39 @@
+package guru.springframework.spring6restmvc.enteties;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Highest sequence of one inventory journal, named by its id, whose delta has been applied to {@code beer}. Written in
+ * the same transaction as the deltas, so replaying the journal after a crash applies every delta exactly once.
+ */
+@Setter
+@Getter
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryJournalCheckpoint {
+
+    @Id
+    @Column(length = 50, nullable = false, updatable = false)
+    private String name;
+
+    @Version
+    private Integer version;
+
+    private long lastSequence;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedDate;
+}
@@ -0,0 +1,35 @@
+package guru.springframework.spring6restmvc.enteties;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered (version 7) UUIDs: a 48 bit millisecond timestamp and a 12 bit sequence followed by
+ * 62 random bits. Consecutive ids sort after each other, so inserts append to the clustered index instead of
+ * landing on random pages.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextUuid();
+    }
+
+    public static UUID nextUuid() {
+        final var now = System.currentTimeMillis() << 12;
+        final var timestampAndSequence = LAST_TIMESTAMP_AND_SEQUENCE.updateAndGet(last -> Math.max(now, last + 1));
+
+        final var mostSigBits = ((timestampAndSequence >>> 12) << 16) | 0x7000L | (timestampAndSequence & 0x0FFFL);
+        final var leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
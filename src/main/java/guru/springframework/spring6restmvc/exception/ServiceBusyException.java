@@ -0,0 +1,27 @@
+package guru.springframework.spring6restmvc.exception;
+
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE, reason = "Service busy.")
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException() {
+    }
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ServiceBusyException(Throwable cause) {
+        super(cause);
+    }
+
+    public ServiceBusyException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -4,7 +4,10 @@ import java.util.List;
 
 import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerInventorySummary;
+import guru.springframework.spring6restmvc.repositories.BeerSummary;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface BeerMapper {
@@ -15,4 +18,9 @@ public interface BeerMapper {
   
   BeerDTO beerToBeerDTO(final Beer beer);
 
+  @Mapping(target = "quantityOnHand", ignore = true)
+  BeerDTO beerSummaryToBeerDTO(final BeerSummary beerSummary);
+
+  BeerDTO beerInventorySummaryToBeerDTO(final BeerInventorySummary beerInventorySummary);
+
 }
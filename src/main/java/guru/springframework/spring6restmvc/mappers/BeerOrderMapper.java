@@ -0,0 +1,25 @@
+package guru.springframework.spring6restmvc.mappers;
+
+import guru.springframework.spring6restmvc.enteties.BeerOrder;
+import guru.springframework.spring6restmvc.enteties.BeerOrderLine;
+import guru.springframework.spring6restmvc.enteties.CustomerOrderSummary;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineDTO;
+import guru.springframework.spring6restmvc.model.CustomerOrderSummaryDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface BeerOrderMapper {
+
+  @Mapping(target = "customerId", source = "customer.id")
+  BeerOrderDTO beerOrderToBeerOrderDTO(final BeerOrder beerOrder);
+
+  @Mapping(target = "beerId", source = "beer.id")
+  @Mapping(target = "beerName", source = "beer.beerName")
+  @Mapping(target = "beerStyle", source = "beer.beerStyle")
+  @Mapping(target = "upc", source = "beer.upc")
+  BeerOrderLineDTO beerOrderLineToBeerOrderLineDTO(final BeerOrderLine beerOrderLine);
+
+  CustomerOrderSummaryDTO customerOrderSummaryToDTO(final CustomerOrderSummary customerOrderSummary);
+}
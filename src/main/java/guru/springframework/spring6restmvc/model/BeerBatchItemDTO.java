@@ -0,0 +1,14 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerBatchItemDTO {
+    private BeerBatchOperation operation;
+    private UUID beerId;
+    private BeerDTO beer;
+}
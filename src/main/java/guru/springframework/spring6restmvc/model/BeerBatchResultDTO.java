@@ -0,0 +1,16 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerBatchResultDTO {
+    private int index;
+    private BeerBatchOperation operation;
+    private UUID beerId;
+    private int status;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerImportResultDTO {
+    private long rowsImported;
+    private long rowsRejected;
+    private List<String> rejections;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
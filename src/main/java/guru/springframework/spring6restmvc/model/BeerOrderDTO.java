@@ -0,0 +1,21 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerOrderDTO {
+    private UUID id;
+    private Integer version;
+    private String customerRef;
+    private UUID customerId;
+    private List<BeerOrderLineDTO> beerOrderLines;
+    private BeerOrderShipmentDTO beerOrderShipment;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+}
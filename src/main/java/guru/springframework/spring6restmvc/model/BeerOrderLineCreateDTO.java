@@ -0,0 +1,23 @@
+package guru.springframework.spring6restmvc.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerOrderLineCreateDTO {
+    @NotNull
+    private UUID beerId;
+
+    public static final int MAX_ORDER_QUANTITY = 10_000;
+
+    @NotNull
+    @Min(1)
+    @Max(MAX_ORDER_QUANTITY)
+    private Integer orderQuantity;
+}
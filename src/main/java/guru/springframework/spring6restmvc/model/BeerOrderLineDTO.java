@@ -0,0 +1,19 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerOrderLineDTO {
+    private UUID id;
+    private Integer version;
+    private UUID beerId;
+    private String beerName;
+    private BeerStyle beerStyle;
+    private String upc;
+    private Integer orderQuantity;
+    private Integer quantityAllocated;
+}
@@ -0,0 +1,17 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerOrderShipmentDTO {
+    private UUID id;
+    private Integer version;
+    private String trackingNumber;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+}
@@ -7,10 +7,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class CustomerDTO {
     private UUID id;
     private String name;
+    private String email;
     private Integer version;
     private LocalDateTime createdDateTime;
     private LocalDateTime lastUpdateDateTime;
@@ -0,0 +1,16 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class CustomerOrderSummaryDTO {
+    private UUID customerId;
+    private long orderCount;
+    private long totalQuantity;
+    private LocalDateTime lastOrderDate;
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentDTO {
+    public static final int MAX_DELTA = 100_000;
+
+    @NotNull
+    @Min(-MAX_DELTA)
+    @Max(MAX_DELTA)
+    private Integer delta;
+}
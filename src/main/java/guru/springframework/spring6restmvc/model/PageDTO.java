@@ -0,0 +1,39 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Page envelope of every paged list endpoint. Keeps the scalar properties of the serialized {@code PageImpl} it
+ * replaced, under the same names, and leaves out only its {@code sort} and {@code pageable} blocks.
+ */
+@Data
+@Builder
+public class PageDTO<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private int numberOfElements;
+    private boolean first;
+    private boolean last;
+    private boolean empty;
+
+    public static <T> PageDTO<T> of(final Page<T> page) {
+        return PageDTO.<T>builder()
+                .content(page.getContent())
+                .number(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .numberOfElements(page.getNumberOfElements())
+                .first(page.isFirst())
+                .last(page.isLast())
+                .empty(page.isEmpty())
+                .build();
+    }
+}
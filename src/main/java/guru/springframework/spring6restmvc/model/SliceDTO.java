@@ -0,0 +1,13 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SliceDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+}
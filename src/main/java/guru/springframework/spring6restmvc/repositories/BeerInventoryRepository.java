@@ -0,0 +1,33 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface BeerInventoryRepository {
+
+    /**
+     * Takes the requested quantities off {@code quantity_on_hand} with one conditional update per beer, sent as a
+     * single JDBC batch. A beer is only decremented when enough stock is left, so concurrent orders never oversell
+     * and never retry on an optimistic lock.
+     *
+     * @return the ids of the beers whose quantity could be allocated
+     */
+    Set<UUID> allocateInventory(final Map<UUID, Integer> quantities);
+
+    /**
+     * Locks the given beers' rows until the surrounding transaction ends and reads their current versions, so no other
+     * writer can change them before an {@link #applyInventoryDeltas} in the same transaction.
+     *
+     * @return the version of every beer that still exists
+     */
+    Map<UUID, Integer> lockInventoryVersions(final Set<UUID> beerIds);
+
+    /**
+     * Adds coalesced quantity deltas to {@code quantity_on_hand} as a single JDBC batch, bumping each beer's version
+     * once per call rather than once per adjustment.
+     *
+     * @return the ids of the beers that still exist and were updated
+     */
+    Set<UUID> applyInventoryDeltas(final Map<UUID, Integer> deltas);
+}
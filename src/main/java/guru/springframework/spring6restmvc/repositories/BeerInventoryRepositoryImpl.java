@@ -0,0 +1,148 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class BeerInventoryRepositoryImpl implements BeerInventoryRepository {
+
+    private static final String ALLOCATE_SQL = "update beer set quantity_on_hand = quantity_on_hand - ?, " +
+            "version = version + 1, updated_date = ? where id = ? and quantity_on_hand >= ?";
+
+    private static final String APPLY_DELTA_SQL = "update beer set quantity_on_hand = coalesce(quantity_on_hand, 0) + ?, " +
+            "version = version + 1, updated_date = ? where id = ?";
+
+    private static final String LOCK_VERSIONS_SQL = "select id, version from beer where id in (%s) order by id for update";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Set<UUID> allocateInventory(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Set.of();
+        }
+
+        // always touch rows in the same order so two orders sharing beers cannot deadlock each other
+        final var entries = new ArrayList<>(quantities.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+
+        final var updatedDate = Timestamp.valueOf(LocalDateTime.now());
+        final var updateCounts = this.jdbcTemplate.batchUpdate(ALLOCATE_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, updatedDate);
+            ps.setBytes(3, toBytes(entry.getKey()));
+            ps.setInt(4, entry.getValue());
+        });
+
+        final var allocated = updatedIds(entries, updateCounts[0]);
+        this.evictAfterCommit(allocated);
+
+        return allocated;
+    }
+
+    @Override
+    public Map<UUID, Integer> lockInventoryVersions(Set<UUID> beerIds) {
+        if (beerIds.isEmpty()) {
+            return Map.of();
+        }
+
+        final var versions = new HashMap<UUID, Integer>();
+        final var sql = LOCK_VERSIONS_SQL.formatted(String.join(", ", Collections.nCopies(beerIds.size(), "?")));
+
+        this.jdbcTemplate.query(sql, rs -> {
+            versions.put(toUuid(rs.getBytes("id")), rs.getInt("version"));
+        }, beerIds.stream().map(BeerInventoryRepositoryImpl::toBytes).toArray());
+
+        return versions;
+    }
+
+    @Override
+    public Set<UUID> applyInventoryDeltas(Map<UUID, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return Set.of();
+        }
+
+        final var entries = new ArrayList<>(deltas.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+
+        final var updatedDate = Timestamp.valueOf(LocalDateTime.now());
+        final var updateCounts = this.jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, updatedDate);
+            ps.setBytes(3, toBytes(entry.getKey()));
+        });
+
+        final var updated = updatedIds(entries, updateCounts[0]);
+        this.evictAfterCommit(updated);
+
+        return updated;
+    }
+
+    /**
+     * The batch bypasses Hibernate, so the cached style queries, which hold full rows, do not learn about the new
+     * quantities. Beers are not in the second-level cache, so the query region is all there is to evict. Evicting
+     * only once the update has committed keeps a concurrent reader from putting the old rows back in between.
+     */
+    private void evictAfterCommit(final Set<UUID> beerIds) {
+        if (beerIds.isEmpty()) {
+            return;
+        }
+
+        final Runnable evict = () -> this.entityManagerFactory.getCache().unwrap(Cache.class)
+                .evictQueryRegion(BeerRepository.STYLE_QUERY_CACHE_REGION);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private static Set<UUID> updatedIds(final List<Map.Entry<UUID, Integer>> entries, final int[] updateCounts) {
+        final var updated = new HashSet<UUID>();
+
+        for (int index = 0; index < entries.size(); index++) {
+            if (updateCounts[index] > 0) {
+                updated.add(entries.get(index).getKey());
+            }
+        }
+
+        return updated;
+    }
+
+    private static UUID toUuid(final byte[] bytes) {
+        final var buffer = ByteBuffer.wrap(bytes);
+
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static byte[] toBytes(final UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,15 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * {@link BeerSummary} plus the quantity on hand, for lists that show inventory.
+ */
+public record BeerInventorySummary(UUID id, Integer version, String beerName, BeerStyle beerStyle, String upc,
+                                   BigDecimal price, Integer quantityOnHand, LocalDateTime createdDate,
+                                   LocalDateTime updatedDate) {
+}
@@ -1,9 +1,30 @@
 package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.enteties.BeerOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BeerOrderRepository extends JpaRepository<BeerOrder, UUID> {
+
+    /**
+     * Pages over order ids only; fetching a collection together with a limit would make Hibernate page in memory,
+     * so the orders of the page are loaded afterwards with {@link #findAllWithLinesByIdIn(Collection)}.
+     */
+    @Query("select o.id from BeerOrder o where (:customerId is null or o.customer.id = :customerId)")
+    Page<UUID> findIdPage(@Param("customerId") final UUID customerId, final Pageable pageable);
+
+    @EntityGraph(BeerOrder.WITH_LINES_AND_SHIPMENT)
+    List<BeerOrder> findAllWithLinesByIdIn(final Collection<UUID> ids);
+
+    @EntityGraph(BeerOrder.WITH_LINES_AND_SHIPMENT)
+    Optional<BeerOrder> findWithLinesById(final UUID id);
 }
@@ -2,19 +2,75 @@ package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, UUID> {
-    
-    Page<Beer> findAllByBeerNameIsLikeIgnoreCase(final String beerName, final Pageable pageable);
-    
-    Page<Beer> findAllByBeerStyle( final BeerStyle beerStyle, final Pageable pageable);
+public interface BeerRepository extends JpaRepository<Beer, UUID>, BeerInventoryRepository {
 
-    Page<Beer> findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle(final String beerName, final BeerStyle beerStyle, final Pageable pageable);
+    String STYLE_QUERY_CACHE_REGION = "beer-by-style";
+
+    <T> Page<T> findPageBy(final Pageable pageable, final Class<T> type);
+
+    <T> Page<T> findPageByBeerNameIsLikeIgnoreCase(final String beerName, final Pageable pageable, final Class<T> type);
+
+    // the cached rows include quantity_on_hand, so BeerInventoryRepository evicts this region after its JDBC updates
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = STYLE_QUERY_CACHE_REGION)})
+    <T> Page<T> findPageByBeerStyle(final BeerStyle beerStyle, final Pageable pageable, final Class<T> type);
+
+    <T> Page<T> findPageByBeerNameIsLikeIgnoreCaseAndBeerStyle(final String beerName, final BeerStyle beerStyle,
+                                                              final Pageable pageable, final Class<T> type);
+
+    <T> List<T> findAllByIdIn(final Collection<UUID> ids, final Class<T> type);
+
+    <T> List<T> findAllBy(final Class<T> type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select b from Beer b order by b.id")
+    Stream<Beer> streamAllBy();
+
+    @Query("select b.version from Beer b where b.id = :id")
+    Optional<Integer> findVersionById(@Param("id") final UUID id);
+
+    @Query("select b from Beer b where b.beerName > :lastBeerName or (b.beerName = :lastBeerName and b.id > :lastId) " +
+            "order by b.beerName, b.id")
+    Slice<Beer> findSliceAfter(@Param("lastBeerName") final String lastBeerName, @Param("lastId") final UUID lastId,
+                               final Pageable pageable);
+
+    @Query("select b from Beer b where upper(b.beerName) like upper(:beerName) " +
+            "and (b.beerName > :lastBeerName or (b.beerName = :lastBeerName and b.id > :lastId)) " +
+            "order by b.beerName, b.id")
+    Slice<Beer> findSliceByBeerNameAfter(@Param("beerName") final String beerName, @Param("lastBeerName") final String lastBeerName,
+                                         @Param("lastId") final UUID lastId, final Pageable pageable);
+
+    @Query("select b from Beer b where b.beerStyle = :beerStyle " +
+            "and (b.beerName > :lastBeerName or (b.beerName = :lastBeerName and b.id > :lastId)) " +
+            "order by b.beerName, b.id")
+    Slice<Beer> findSliceByBeerStyleAfter(@Param("beerStyle") final BeerStyle beerStyle, @Param("lastBeerName") final String lastBeerName,
+                                          @Param("lastId") final UUID lastId, final Pageable pageable);
+
+    @Query("select b from Beer b where upper(b.beerName) like upper(:beerName) and b.beerStyle = :beerStyle " +
+            "and (b.beerName > :lastBeerName or (b.beerName = :lastBeerName and b.id > :lastId)) " +
+            "order by b.beerName, b.id")
+    Slice<Beer> findSliceByBeerNameAndBeerStyleAfter(@Param("beerName") final String beerName, @Param("beerStyle") final BeerStyle beerStyle,
+                                                     @Param("lastBeerName") final String lastBeerName, @Param("lastId") final UUID lastId,
+                                                     final Pageable pageable);
 }
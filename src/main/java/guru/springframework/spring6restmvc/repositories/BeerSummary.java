@@ -0,0 +1,15 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only list row for a beer without its inventory. Used as a constructor projection, so only these columns are
+ * selected and no managed {@code Beer} is created.
+ */
+public record BeerSummary(UUID id, Integer version, String beerName, BeerStyle beerStyle, String upc, BigDecimal price,
+                          LocalDateTime createdDate, LocalDateTime updatedDate) {
+}
@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.enteties.CustomerOrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface CustomerOrderSummaryRepository extends JpaRepository<CustomerOrderSummary, UUID> {
+
+    /**
+     * Adds one order to the totals in a single statement, so concurrent orders of the same customer never lose an
+     * update. Returns 0 when the customer has no summary row yet.
+     */
+    @Modifying
+    @Query("update CustomerOrderSummary s set s.orderCount = s.orderCount + 1, " +
+            "s.totalQuantity = s.totalQuantity + :quantity, " +
+            "s.lastOrderDate = case when s.lastOrderDate is null or s.lastOrderDate < :orderDate then :orderDate else s.lastOrderDate end, " +
+            "s.version = s.version + 1 " +
+            "where s.customerId = :customerId")
+    int recordOrder(@Param("customerId") final UUID customerId, @Param("quantity") final long quantity,
+                    @Param("orderDate") final LocalDateTime orderDate);
+}
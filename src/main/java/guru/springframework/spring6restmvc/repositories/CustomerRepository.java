@@ -1,9 +1,34 @@
 package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.enteties.Customer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+
+    @Query("select c from Customer c where (:name is null or upper(c.name) like upper(:name)) " +
+            "and (:email is null or upper(c.email) like upper(:email))")
+    Page<Customer> findAllMatching(@Param("name") final String name, @Param("email") final String email,
+                                   final Pageable pageable);
+
+    @Query("select c from Customer c where (:name is null or upper(c.name) like upper(:name)) " +
+            "and (:email is null or upper(c.email) like upper(:email)) and c.id > :lastId order by c.id")
+    Slice<Customer> findSliceMatchingAfter(@Param("name") final String name, @Param("email") final String email,
+                                           @Param("lastId") final UUID lastId, final Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id from Customer c where c.id = :id")
+    Optional<UUID> lockById(@Param("id") final UUID id);
+
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Integer> findVersionById(@Param("id") final UUID id);
 }
@@ -0,0 +1,7 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.enteties.DataSeed;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DataSeedRepository extends JpaRepository<DataSeed, String> {
+}
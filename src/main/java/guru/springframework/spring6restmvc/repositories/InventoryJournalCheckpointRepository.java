@@ -0,0 +1,7 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.enteties.InventoryJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InventoryJournalCheckpointRepository extends JpaRepository<InventoryJournalCheckpoint, String> {
+}
@@ -0,0 +1,270 @@
+package guru.springframework.spring6restmvc.search;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over beer names answering case- and accent-insensitive "name contains term" lookups,
+ * optionally narrowed by style, with the first matching ids already in list order so callers only load the requested
+ * page. Names are folded and ordered the way MySQL's {@code utf8mb4_0900_ai_ci} column collation compares them at
+ * primary strength (see {@link #fold} and {@link #sortKey}), then by the id as unsigned bytes, the way
+ * {@code binary(16)} compares, so index-served pages and the database's LIKE fallback agree on what matches and in
+ * which order. Characters outside ASCII without a decomposition are only approximated, by code point after the
+ * ASCII letters.
+ * A search returns {@link Optional#empty()} whenever the index cannot answer better than a LIKE query
+ * (term shorter than a trigram, LIKE wildcards in the term, index not built yet or too many candidates),
+ * and callers fall back to the database.
+ */
+@Component
+public class BeerNameIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private static final Comparator<Map.Entry<UUID, Entry>> BY_NAME_THEN_ID = Comparator
+            .comparing((Map.Entry<UUID, Entry> entry) -> entry.getValue().sortKey())
+            .thenComparing(Map.Entry::getKey, BeerNameIndex::compareUnsigned);
+
+    // ASCII whitespace, punctuation and symbols in their DUCET primary order, all of which sort before digits and letters
+    private static final String VARIABLE_ORDER = "\t\n\u000B\f\r _-,;:!?.'\"()[]{}@*/\\&#%`^+<=>|~$";
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Object rebuildLock = new Object();
+
+    private volatile boolean ready;
+
+    // changes made while a rebuild reads its snapshot, replayed over it; guarded by this
+    private List<Runnable> changesDuringRebuild;
+
+    /**
+     * @param limit how many of the ordered matches to return, usually the end offset of the requested page
+     */
+    public Optional<Matches> search(final String term, final BeerStyle beerStyle, final int maxCandidates,
+                                    final int limit) {
+        if (!this.ready || !StringUtils.hasText(term) || term.indexOf('%') >= 0 || term.indexOf('_') >= 0) {
+            return Optional.empty();
+        }
+
+        // folding drops combining marks, so only the folded term tells whether there is a trigram to look up
+        final var normalizedTerm = fold(term);
+        if (normalizedTerm.length() < GRAM_SIZE) {
+            return Optional.empty();
+        }
+
+        final var postingLists = new ArrayList<Set<UUID>>();
+        for (String gram : trigrams(normalizedTerm)) {
+            final var ids = this.postings.get(gram);
+
+            if (ids == null) {
+                return Optional.of(new Matches(List.of(), 0));
+            }
+
+            postingLists.add(ids);
+        }
+
+        postingLists.sort(Comparator.comparingInt(Set::size));
+
+        if (postingLists.get(0).size() > maxCandidates) {
+            return Optional.empty();
+        }
+
+        // bounded max-heap of the first matches, so a broad term costs O(n log limit) instead of a full sort
+        final var first = new PriorityQueue<Map.Entry<UUID, Entry>>(BY_NAME_THEN_ID.reversed());
+        var total = 0;
+
+        for (UUID id : postingLists.get(0)) {
+            final var entry = this.entries.get(id);
+
+            if (entry != null && entry.normalizedName().contains(normalizedTerm)
+                    && (beerStyle == null || beerStyle == entry.beerStyle())) {
+                total++;
+
+                final var match = Map.entry(id, entry);
+
+                if (first.size() < limit) {
+                    first.add(match);
+                } else if (limit > 0 && BY_NAME_THEN_ID.compare(match, first.peek()) < 0) {
+                    first.poll();
+                    first.add(match);
+                }
+            }
+        }
+
+        final var ordered = new ArrayList<>(first);
+        ordered.sort(BY_NAME_THEN_ID);
+
+        return Optional.of(new Matches(ordered.stream().map(Map.Entry::getKey).toList(), total));
+    }
+
+    public synchronized void index(final UUID id, final String beerName, final BeerStyle beerStyle) {
+        this.recordDuringRebuild(() -> this.index(id, beerName, beerStyle));
+        this.removeEntry(id);
+
+        if (id == null || beerName == null) {
+            return;
+        }
+
+        final var normalizedName = fold(beerName);
+        final var entry = new Entry(beerName, normalizedName, sortKey(normalizedName), beerStyle);
+
+        this.entries.put(id, entry);
+        trigrams(entry.normalizedName()).forEach(gram -> this.postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    public synchronized void remove(final UUID id) {
+        this.recordDuringRebuild(() -> this.remove(id));
+        this.removeEntry(id);
+    }
+
+    private void removeEntry(final UUID id) {
+        if (id == null) {
+            return;
+        }
+
+        final var previous = this.entries.remove(id);
+
+        if (previous != null) {
+            trigrams(previous.normalizedName()).forEach(gram -> this.postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+    }
+
+    /**
+     * Replaces the index with a fresh snapshot. The snapshot is read outside the index lock, so every {@link #index}
+     * and {@link #remove} made meanwhile is kept aside and applied again on top of it; a change committed after the
+     * snapshot query is therefore never lost to it.
+     */
+    public void rebuild(final Supplier<? extends Collection<BeerNameView>> snapshot) {
+        synchronized (this.rebuildLock) {
+            synchronized (this) {
+                this.changesDuringRebuild = new ArrayList<>();
+            }
+
+            final Collection<BeerNameView> beers;
+
+            try {
+                beers = snapshot.get();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    this.changesDuringRebuild = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                final var changes = this.changesDuringRebuild;
+                this.changesDuringRebuild = null;
+
+                this.ready = false;
+                this.postings.clear();
+                this.entries.clear();
+
+                beers.forEach(beer -> this.index(beer.getId(), beer.getBeerName(), beer.getBeerStyle()));
+                changes.forEach(Runnable::run);
+
+                this.ready = true;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    private void recordDuringRebuild(final Runnable change) {
+        if (this.changesDuringRebuild != null) {
+            this.changesDuringRebuild.add(change);
+        }
+    }
+
+    /**
+     * Case and accent folding as {@code _ai_ci} does it: compatibility decomposition with the combining marks dropped,
+     * {@code ß} as {@code ss}, lower-cased.
+     */
+    static String fold(final String value) {
+        final var decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("\u00DF", "ss");
+    }
+
+    /**
+     * Maps a folded name to a string whose natural order is the collation's: whitespace and punctuation first, in
+     * DUCET order, then digits, then letters, with a name sorting before every longer name it is a prefix of.
+     */
+    static String sortKey(final String foldedName) {
+        final var key = new StringBuilder(foldedName.length());
+
+        for (int i = 0; i < foldedName.length(); i++) {
+            final var c = foldedName.charAt(i);
+            final var variableRank = VARIABLE_ORDER.indexOf(c);
+
+            if (variableRank >= 0) {
+                key.append((char) (1 + variableRank));
+            } else if (c >= '0' && c <= '9') {
+                key.append((char) (0x100 + c - '0'));
+            } else if (c >= 'a' && c <= 'z') {
+                key.append((char) (0x200 + c - 'a'));
+            } else {
+                key.append((char) Math.min(Character.MAX_VALUE, 0x300 + c));
+            }
+        }
+
+        return key.toString();
+    }
+
+    private static int compareUnsigned(final UUID left, final UUID right) {
+        final var mostSignificant = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+
+        return mostSignificant != 0
+                ? mostSignificant
+                : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private static Set<String> trigrams(final String value) {
+        final var grams = new HashSet<String>();
+
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+
+        return grams;
+    }
+
+    /**
+     * The first {@code limit} matching ids in list order and the number of matches overall.
+     */
+    public record Matches(List<UUID> ids, int total) {
+    }
+
+    private record Entry(String beerName, String normalizedName, String sortKey, BeerStyle beerStyle) {
+    }
+}
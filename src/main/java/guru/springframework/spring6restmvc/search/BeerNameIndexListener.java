@@ -0,0 +1,52 @@
+package guru.springframework.spring6restmvc.search;
+
+import guru.springframework.spring6restmvc.enteties.Beer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the {@link BeerNameIndex} in step with beer writes. Changes are applied once the surrounding
+ * transaction commits, so rolled back writes never reach the index.
+ */
+@Component
+@RequiredArgsConstructor
+public class BeerNameIndexListener {
+
+    private final ObjectProvider<BeerNameIndex> beerNameIndexProvider;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(final Beer beer) {
+        final var id = beer.getId();
+        final var beerName = beer.getBeerName();
+        final var beerStyle = beer.getBeerStyle();
+
+        this.afterCommit(() -> this.beerNameIndexProvider.ifAvailable(index -> index.index(id, beerName, beerStyle)));
+    }
+
+    @PostRemove
+    public void onRemove(final Beer beer) {
+        final var id = beer.getId();
+
+        this.afterCommit(() -> this.beerNameIndexProvider.ifAvailable(index -> index.remove(id)));
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springframework.spring6restmvc.search;
+
+import guru.springframework.spring6restmvc.bootstrap.DataSeededEvent;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BeerNameIndexLoader {
+
+    private final BeerRepository beerRepository;
+
+    private final BeerNameIndex beerNameIndex;
+
+    @Transactional(readOnly = true)
+    @EventListener({ApplicationReadyEvent.class, DataSeededEvent.class})
+    public void loadIndex() {
+        final var startNanos = System.nanoTime();
+
+        this.beerNameIndex.rebuild(() -> this.beerRepository.findAllBy(BeerNameView.class));
+
+        log.debug("Indexed {} beer names in {} ms", this.beerNameIndex.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
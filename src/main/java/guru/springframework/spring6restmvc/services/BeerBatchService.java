@@ -0,0 +1,10 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+
+import java.util.List;
+
+public interface BeerBatchService {
+    List<BeerBatchResultDTO> processBatch(List<BeerBatchItemDTO> items);
+}
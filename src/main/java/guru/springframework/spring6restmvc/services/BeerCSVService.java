@@ -1,11 +1,26 @@
 package guru.springframework.spring6restmvc.services;
 
+import com.opencsv.exceptions.CsvException;
+import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface BeerCSVService {
     
     List<BeerCSVRecord> convertCSV(final File file);
+
+    Stream<BeerCSVRecord> streamCSV(final Reader reader, final Consumer<CsvException> rejectedRowHandler);
+
+    Beer toBeer(final BeerCSVRecord beerCSVRecord);
+
+    void writeCSV(final Writer writer, final Stream<BeerCSVRecord> records) throws IOException;
+
+    BeerCSVRecord toBeerCSVRecord(final Beer beer, final int row);
 }
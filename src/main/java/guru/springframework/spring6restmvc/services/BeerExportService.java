@@ -0,0 +1,11 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BeerExportService {
+
+    long exportBeers(final BeerExportFormat format, final OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,10 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
+
+import java.io.Reader;
+
+public interface BeerImportService {
+
+    BeerImportResultDTO importBeers(final Reader reader);
+}
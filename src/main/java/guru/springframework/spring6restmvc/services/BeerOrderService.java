@@ -0,0 +1,28 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.CustomerOrderSummaryDTO;
+import org.springframework.data.domain.Page;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BeerOrderService {
+
+    BeerOrderDTO placeOrder(final BeerOrderCreateDTO beerOrderCreate);
+
+    Optional<BeerOrderDTO> getBeerOrderById(final UUID beerOrderId);
+
+    Page<BeerOrderDTO> getBeerOrderPage(final UUID customerId, final Integer pageNumber, final Integer pageSize);
+
+    /**
+     * @return empty if the customer does not exist
+     */
+    Optional<Page<BeerOrderDTO>> getCustomerOrderPage(final UUID customerId, final Integer pageNumber, final Integer pageSize);
+
+    /**
+     * @return empty if the customer does not exist
+     */
+    Optional<CustomerOrderSummaryDTO> getCustomerOrderSummary(final UUID customerId);
+}
@@ -0,0 +1,17 @@
+package guru.springframework.spring6restmvc.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+/**
+ * A beer list page that has already been loaded and only still has to be written out as JSON.
+ */
+@FunctionalInterface
+public interface BeerPageJson {
+
+    /**
+     * @param fields the beer properties to write, like {@code ?fields=} on the list endpoint, or {@code null} for all
+     */
+    void writeTo(OutputStream outputStream, Set<String> fields) throws IOException;
+}
@@ -2,6 +2,7 @@ package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SliceDTO;
 import org.springframework.data.domain.Page;
 
 import java.util.Optional;
@@ -10,8 +11,19 @@ import java.util.UUID;
 public interface BeerService {
     Page<BeerDTO> getBeerPage(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize);
 
+    /**
+     * Loads the same page as {@link #getBeerPage} for writing straight to JSON. Writing happens after this call has
+     * returned, so nothing the service holds while loading is held while a slow client reads the response.
+     */
+    BeerPageJson getBeerPageJson(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber,
+                                 Integer pageSize);
+
+    SliceDTO<BeerDTO> getBeerSlice(String beerName, BeerStyle beerStyle, Boolean showInventory, String cursor, Integer pageSize);
+
     Optional<BeerDTO> getBeerById(final UUID id);
 
+    Optional<Integer> getBeerVersion(final UUID id);
+
     BeerDTO saveNewBeer(final BeerDTO beer);
 
     Optional<BeerDTO> updateBeer(UUID beerId, BeerDTO beer);
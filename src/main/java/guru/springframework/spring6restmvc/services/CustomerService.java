@@ -1,17 +1,29 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
+import org.springframework.data.domain.Page;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CustomerService {
     
-    List<CustomerDTO> getCustomersList();
+    Page<CustomerDTO> getCustomerPage(String name, String email, Integer pageNumber, Integer pageSize);
+
+    SliceDTO<CustomerDTO> getCustomerSlice(String name, String email, String cursor, Integer pageSize);
+
+    /**
+     * Lazily walks all matching customers in id order; rows are fetched in fixed-size keyset chunks as the
+     * stream is consumed, so memory stays bounded regardless of table size.
+     */
+    Stream<CustomerDTO> streamCustomers(String name, String email);
     
     Optional<CustomerDTO> getCustomerById(final UUID customerId);
 
+    Optional<Integer> getCustomerVersion(final UUID customerId);
+
     CustomerDTO saveNewCustomer(CustomerDTO customer);
 
     Optional<CustomerDTO> updateCustomer(UUID customerId, CustomerDTO customer);
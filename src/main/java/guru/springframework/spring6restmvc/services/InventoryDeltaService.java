@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.services;
+
+import java.util.UUID;
+
+public interface InventoryDeltaService {
+
+    /**
+     * Durably records a quantity adjustment for a beer. The delta is applied to the database by a later
+     * {@link #flush()}, coalesced with every other delta recorded for the same beer in the meantime.
+     */
+    void recordDelta(final UUID beerId, final int delta);
+
+    /**
+     * Sum of the deltas recorded for a beer that are not yet part of the beer as it was loaded, for read-your-writes
+     * views. Pass the version of the loaded beer, read before calling this, so deltas a flush has already committed
+     * are not counted a second time.
+     */
+    int pendingDelta(final UUID beerId, final Integer loadedVersion);
+
+    /**
+     * Applies all pending deltas in one batched update.
+     *
+     * @return the number of beers updated
+     */
+    int flush();
+}
@@ -0,0 +1,287 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import guru.springframework.spring6restmvc.config.CacheConfig;
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.exception.BadRequestException;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchOperation;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerBatchService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerBatchServiceJPA implements BeerBatchService {
+
+  private static final int MAX_BATCH_ITEMS = 10_000;
+
+  private final BeerRepository beerRepository;
+  private final BeerMapper beerMapper;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final CacheManager cacheManager;
+
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  private int batchSize;
+
+  @Override
+  public List<BeerBatchResultDTO> processBatch(List<BeerBatchItemDTO> items) {
+    if (items == null || items.isEmpty()) {
+      throw new BadRequestException("Batch must contain at least one item");
+    }
+
+    if (items.size() > MAX_BATCH_ITEMS) {
+      throw new BadRequestException("Batch must not contain more than " + MAX_BATCH_ITEMS + " items");
+    }
+
+    final var results = Arrays.asList(new BeerBatchResultDTO[items.size()]);
+
+    for (int from = 0; from < items.size(); from += this.batchSize) {
+      this.processChunk(items, from, Math.min(from + this.batchSize, items.size()), results);
+    }
+
+    return results;
+  }
+
+  private void processChunk(final List<BeerBatchItemDTO> items, final int from, final int to,
+                            final List<BeerBatchResultDTO> results) {
+    try {
+      this.transactionTemplate.executeWithoutResult(status -> this.applyChunk(items, from, to, results));
+    } catch (RuntimeException e) {
+      // one bad row (e.g. a beer still referenced by an order line) must not fail its neighbours,
+      // so replay the chunk one item per transaction to find out which item was at fault
+      log.debug("Batch chunk {}..{} failed, retrying items individually: {}", from, to, e.getMessage());
+
+      for (int index = from; index < to; index++) {
+        final var itemIndex = index;
+
+        try {
+          this.transactionTemplate.executeWithoutResult(status -> this.applyChunk(items, itemIndex, itemIndex + 1, results));
+        } catch (RuntimeException itemException) {
+          results.set(itemIndex, this.failedItem(itemIndex, items.get(itemIndex), itemException));
+        }
+      }
+    }
+  }
+
+  private void applyChunk(final List<BeerBatchItemDTO> items, final int from, final int to,
+                          final List<BeerBatchResultDTO> results) {
+    final var ids = items.subList(from, to).stream()
+        .filter(item -> item.getOperation() != BeerBatchOperation.CREATE)
+        .map(BeerBatchItemDTO::getBeerId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+
+    final Map<UUID, Beer> beers = this.beerRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+    final var touchedIds = new ArrayList<UUID>();
+
+    for (int index = from; index < to; index++) {
+      final var result = this.applyItem(index, items.get(index), beers);
+
+      results.set(index, result);
+
+      if (result.getBeerId() != null && result.getStatus() < HttpStatus.BAD_REQUEST.value()) {
+        touchedIds.add(result.getBeerId());
+      }
+    }
+
+    this.beerRepository.flush();
+    this.entityManager.clear();
+
+    // the cache is transaction aware, so these evictions only happen once the chunk has committed
+    final var beerCache = this.cacheManager.getCache(CacheConfig.BEER_CACHE);
+
+    if (beerCache != null) {
+      touchedIds.forEach(beerCache::evict);
+    }
+  }
+
+  private BeerBatchResultDTO applyItem(final int index, final BeerBatchItemDTO item, final Map<UUID, Beer> beers) {
+    final var operation = item.getOperation();
+
+    if (operation == null) {
+      return this.result(index, null, item.getBeerId(), HttpStatus.BAD_REQUEST, "operation is required");
+    }
+
+    if (operation != BeerBatchOperation.DELETE && item.getBeer() == null) {
+      return this.result(index, operation, item.getBeerId(), HttpStatus.BAD_REQUEST, "beer is required");
+    }
+
+    if (operation == BeerBatchOperation.CREATE) {
+      return this.create(index, item.getBeer());
+    }
+
+    final var beer = item.getBeerId() == null ? null : beers.get(item.getBeerId());
+
+    if (beer == null) {
+      return this.result(index, operation, item.getBeerId(), HttpStatus.NOT_FOUND, "beer not found");
+    }
+
+    if (item.getBeer() != null && item.getBeer().getVersion() != null
+        && !item.getBeer().getVersion().equals(beer.getVersion())) {
+      return this.result(index, operation, beer.getId(), HttpStatus.CONFLICT, "version " + item.getBeer().getVersion()
+          + " does not match current version " + beer.getVersion());
+    }
+
+    return switch (operation) {
+      case UPDATE -> this.update(index, beer, item.getBeer());
+      case PATCH -> this.patch(index, beer, item.getBeer());
+      default -> this.delete(index, beer, beers);
+    };
+  }
+
+  private BeerBatchResultDTO create(final int index, final BeerDTO beerDTO) {
+    final var beer = this.beerMapper.beerDTOtoBeer(beerDTO);
+    beer.setId(null);
+    beer.setVersion(null);
+
+    final var violations = this.validator.validate(beer);
+
+    if (!violations.isEmpty()) {
+      return this.result(index, BeerBatchOperation.CREATE, null, HttpStatus.BAD_REQUEST, this.describe(violations));
+    }
+
+    final var savedBeer = this.beerRepository.save(beer);
+
+    return this.result(index, BeerBatchOperation.CREATE, savedBeer.getId(), HttpStatus.CREATED, null);
+  }
+
+  private BeerBatchResultDTO update(final int index, final Beer beer, final BeerDTO beerDTO) {
+    final var candidate = this.beerMapper.beerToBeerDTO(beer);
+    candidate.setBeerName(beerDTO.getBeerName());
+    candidate.setBeerStyle(beerDTO.getBeerStyle());
+    candidate.setPrice(beerDTO.getPrice());
+    candidate.setUpc(beerDTO.getUpc());
+    candidate.setQuantityOnHand(beerDTO.getQuantityOnHand());
+
+    return this.apply(index, BeerBatchOperation.UPDATE, beer, candidate);
+  }
+
+  private BeerBatchResultDTO patch(final int index, final Beer beer, final BeerDTO beerDTO) {
+    final var candidate = this.beerMapper.beerToBeerDTO(beer);
+
+    if (StringUtils.hasText(beerDTO.getBeerName())) {
+      candidate.setBeerName(beerDTO.getBeerName());
+    }
+
+    if (beerDTO.getBeerStyle() != null) {
+      candidate.setBeerStyle(beerDTO.getBeerStyle());
+    }
+
+    if (beerDTO.getQuantityOnHand() != null) {
+      candidate.setQuantityOnHand(beerDTO.getQuantityOnHand());
+    }
+
+    if (beerDTO.getPrice() != null) {
+      candidate.setPrice(beerDTO.getPrice());
+    }
+
+    if (StringUtils.hasText(beerDTO.getUpc())) {
+      candidate.setUpc(beerDTO.getUpc());
+    }
+
+    return this.apply(index, BeerBatchOperation.PATCH, beer, candidate);
+  }
+
+  private BeerBatchResultDTO delete(final int index, final Beer beer, final Map<UUID, Beer> beers) {
+    this.beerRepository.delete(beer);
+    beers.remove(beer.getId());
+
+    return this.result(index, BeerBatchOperation.DELETE, beer.getId(), HttpStatus.OK, null);
+  }
+
+  /**
+   * Validates the would-be state before touching the managed entity, so an invalid item is never flushed
+   * together with the rest of its chunk.
+   */
+  private BeerBatchResultDTO apply(final int index, final BeerBatchOperation operation, final Beer beer,
+                                   final BeerDTO candidate) {
+    final var violations = this.validator.validate(this.beerMapper.beerDTOtoBeer(candidate));
+
+    if (!violations.isEmpty()) {
+      return this.result(index, operation, beer.getId(), HttpStatus.BAD_REQUEST, this.describe(violations));
+    }
+
+    beer.setBeerName(candidate.getBeerName());
+    beer.setBeerStyle(candidate.getBeerStyle());
+    beer.setPrice(candidate.getPrice());
+    beer.setUpc(candidate.getUpc());
+    beer.setQuantityOnHand(candidate.getQuantityOnHand());
+    beer.setUpdatedDate(LocalDateTime.now());
+
+    return this.result(index, operation, beer.getId(), HttpStatus.OK, null);
+  }
+
+  /**
+   * Only conflicts with the stored data are the client's to resolve; anything else is reported generically, so no
+   * driver or schema details leak into the response.
+   */
+  private BeerBatchResultDTO failedItem(final int index, final BeerBatchItemDTO item, final RuntimeException e) {
+    if (e instanceof DataIntegrityViolationException) {
+      log.debug("Batch item {} violates a constraint: {}", index, e.getMessage());
+
+      return this.result(index, item.getOperation(), item.getBeerId(), HttpStatus.CONFLICT,
+          "conflicts with existing data");
+    }
+
+    if (e instanceof OptimisticLockingFailureException) {
+      log.debug("Batch item {} lost an optimistic lock: {}", index, e.getMessage());
+
+      return this.result(index, item.getOperation(), item.getBeerId(), HttpStatus.CONFLICT,
+          "beer was modified concurrently");
+    }
+
+    log.error("Batch item {} failed", index, e);
+
+    return this.result(index, item.getOperation(), item.getBeerId(), HttpStatus.INTERNAL_SERVER_ERROR,
+        "item could not be processed");
+  }
+
+  private String describe(final Iterable<ConstraintViolation<Beer>> violations) {
+    final var messages = new ArrayList<String>();
+
+    violations.forEach(violation -> messages.add(violation.getPropertyPath() + " " + violation.getMessage()));
+
+    return String.join(", ", messages);
+  }
+
+  private BeerBatchResultDTO result(final int index, final BeerBatchOperation operation, final UUID beerId,
+                                    final HttpStatus status, final String message) {
+    return BeerBatchResultDTO.builder()
+        .index(index)
+        .operation(operation)
+        .beerId(beerId)
+        .status(status.value())
+        .message(message)
+        .build();
+  }
+}
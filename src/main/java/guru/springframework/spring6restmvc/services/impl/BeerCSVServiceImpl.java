@@ -1,17 +1,36 @@
 package guru.springframework.spring6restmvc.services.impl;
 
+import com.opencsv.CSVWriter;
 import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.exceptions.CsvException;
+import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerStyle;
 import guru.springframework.spring6restmvc.services.BeerCSVService;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class BeerCSVServiceImpl implements BeerCSVService {
+    private static final String[] CSV_COLUMNS = {"row", "count.x", "abv", "ibu", "id", "beer", "style", "brewery_id",
+            "ounces", "style2", "count.y", "brewery", "city", "state", "label"};
+
     @Override
     public List<BeerCSVRecord> convertCSV(File file) {
         try {
@@ -24,4 +43,97 @@ public class BeerCSVServiceImpl implements BeerCSVService {
         }
 
     }
+
+    @Override
+    public Stream<BeerCSVRecord> streamCSV(Reader reader, Consumer<CsvException> rejectedRowHandler) {
+        final var iterator = new CsvToBeanBuilder<BeerCSVRecord>(reader)
+                .withType(BeerCSVRecord.class)
+                .withExceptionHandler(exception -> {
+                    rejectedRowHandler.accept(exception);
+                    return null;
+                })
+                .build()
+                .iterator();
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Beer toBeer(BeerCSVRecord beerCSVRecord) {
+        return Beer.builder()
+                .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
+                .beerStyle(this.mapBeerStyle(beerCSVRecord.getStyle()))
+                .price(BigDecimal.TEN)
+                .upc(beerCSVRecord.getRow().toString())
+                .quantityOnHand(beerCSVRecord.getCount())
+                .build();
+    }
+
+    @Override
+    public void writeCSV(Writer writer, Stream<BeerCSVRecord> records) throws IOException {
+        final var csvWriter = new CSVWriter(writer);
+        final var iterator = records.iterator();
+
+        csvWriter.writeNext(CSV_COLUMNS);
+
+        while (iterator.hasNext() && csvWriter.getException() == null) {
+            csvWriter.writeNext(this.toColumns(iterator.next()));
+        }
+
+        if (csvWriter.getException() != null) {
+            throw csvWriter.getException();
+        }
+
+        csvWriter.flush();
+    }
+
+    @Override
+    public BeerCSVRecord toBeerCSVRecord(Beer beer, int row) {
+        final var beerCSVRecord = new BeerCSVRecord();
+        beerCSVRecord.setRow(row);
+        beerCSVRecord.setCount(beer.getQuantityOnHand());
+        beerCSVRecord.setBeer(beer.getBeerName());
+        beerCSVRecord.setStyle(beer.getBeerStyle() == null ? null : beer.getBeerStyle().name());
+
+        return beerCSVRecord;
+    }
+
+    private String[] toColumns(final BeerCSVRecord beerCSVRecord) {
+        return new String[]{
+                Objects.toString(beerCSVRecord.getRow(), null),
+                Objects.toString(beerCSVRecord.getCount(), null),
+                beerCSVRecord.getAbv(),
+                beerCSVRecord.getIbu(),
+                Objects.toString(beerCSVRecord.getId(), null),
+                beerCSVRecord.getBeer(),
+                beerCSVRecord.getStyle(),
+                Objects.toString(beerCSVRecord.getBreweryId(), null),
+                Objects.toString(beerCSVRecord.getOunces(), null),
+                beerCSVRecord.getStyle2(),
+                beerCSVRecord.getCount_y(),
+                beerCSVRecord.getBrewery(),
+                beerCSVRecord.getCity(),
+                beerCSVRecord.getState(),
+                beerCSVRecord.getLabel()
+        };
+    }
+
+    private BeerStyle mapBeerStyle(final String style) {
+        if (style == null) {
+            return BeerStyle.PILSNER;
+        }
+
+        return switch (style) {
+            case "American Pale Lager" -> BeerStyle.LAGER;
+            case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
+                    BeerStyle.ALE;
+            case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
+            case "American Porter" -> BeerStyle.PORTER;
+            case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
+            case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
+            case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
+            case "English Pale Ale" -> BeerStyle.PALE_ALE;
+            default -> EnumUtils.getEnum(BeerStyle.class, style, BeerStyle.PILSNER);
+        };
+    }
 }
@@ -0,0 +1,99 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerCSVService;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerExportServiceJPA implements BeerExportService {
+
+  private final BeerRepository beerRepository;
+  private final BeerMapper beerMapper;
+  private final BeerCSVService beerCSVService;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+
+  /**
+   * Writes the whole catalogue straight from a forward-only cursor. Every beer is detached once it has been
+   * written, so the persistence context never holds more than the current row.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public long exportBeers(BeerExportFormat format, OutputStream outputStream) throws IOException {
+    final var startNanos = System.nanoTime();
+
+    try (var beers = this.beerRepository.streamAllBy()) {
+      final var count = switch (format) {
+        case NDJSON -> this.writeNdjson(beers, outputStream);
+        case CSV -> this.writeCsv(beers, outputStream);
+      };
+
+      log.debug("Exported {} beers as {} in {} ms", count, format, (System.nanoTime() - startNanos) / 1_000_000);
+
+      return count;
+    }
+  }
+
+  private long writeNdjson(final Stream<Beer> beers, final OutputStream outputStream) throws IOException {
+    final var writer = this.objectMapper.writerFor(BeerDTO.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    var count = 0L;
+
+    try (var generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+
+      final var iterator = beers.iterator();
+
+      while (iterator.hasNext()) {
+        writer.writeValue(generator, this.toBeerDTO(iterator.next()));
+        generator.writeRaw('\n');
+        count++;
+      }
+    }
+
+    return count;
+  }
+
+  private long writeCsv(final Stream<Beer> beers, final OutputStream outputStream) throws IOException {
+    final var row = new AtomicInteger();
+    final var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+    this.beerCSVService.writeCSV(writer, beers.map(beer -> {
+      final var beerCSVRecord = this.beerCSVService.toBeerCSVRecord(beer, row.incrementAndGet());
+      this.entityManager.detach(beer);
+      return beerCSVRecord;
+    }));
+    writer.flush();
+
+    return row.get();
+  }
+
+  private BeerDTO toBeerDTO(final Beer beer) {
+    final var beerDTO = this.beerMapper.beerToBeerDTO(beer);
+    this.entityManager.detach(beer);
+    return beerDTO;
+  }
+}
@@ -0,0 +1,111 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerCSVService;
+import guru.springframework.spring6restmvc.services.BeerImportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerImportServiceJPA implements BeerImportService {
+
+  private static final int MAX_REPORTED_REJECTIONS = 100;
+
+  private final BeerRepository beerRepository;
+  private final BeerCSVService beerCSVService;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  private int batchSize;
+
+  @Override
+  public BeerImportResultDTO importBeers(Reader reader) {
+    final var startNanos = System.nanoTime();
+    final var result = BeerImportResultDTO.builder()
+        .rejections(new ArrayList<>())
+        .build();
+    final var batch = new ArrayList<Beer>(this.batchSize);
+
+    try (var records = this.beerCSVService.streamCSV(reader, exception ->
+        this.reject(result, "line " + exception.getLineNumber() + ": " + exception.getMessage()))) {
+
+      records.forEach(beerCSVRecord -> {
+        final var rejection = this.validate(beerCSVRecord);
+
+        if (rejection != null) {
+          this.reject(result, "row " + beerCSVRecord.getRow() + ": " + rejection);
+          return;
+        }
+
+        batch.add(this.beerCSVService.toBeer(beerCSVRecord));
+
+        if (batch.size() >= this.batchSize) {
+          this.saveBatch(batch, result);
+        }
+      });
+    }
+
+    this.saveBatch(batch, result);
+
+    final var elapsedNanos = System.nanoTime() - startNanos;
+
+    result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    result.setRowsPerSecond(elapsedNanos > 0 ? result.getRowsImported() * 1_000_000_000d / elapsedNanos : 0d);
+
+    log.debug("Imported {} beers ({} rejected) in {} ms", result.getRowsImported(), result.getRowsRejected(),
+        result.getElapsedMillis());
+
+    return result;
+  }
+
+  private String validate(final BeerCSVRecord beerCSVRecord) {
+    if (beerCSVRecord.getRow() == null) {
+      return "row number is missing";
+    }
+
+    if (!StringUtils.hasText(beerCSVRecord.getBeer())) {
+      return "beer name is blank";
+    }
+
+    return null;
+  }
+
+  private void saveBatch(final List<Beer> batch, final BeerImportResultDTO result) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    this.transactionTemplate.executeWithoutResult(status -> {
+      this.beerRepository.saveAll(batch);
+      this.beerRepository.flush();
+      this.entityManager.clear();
+    });
+
+    result.setRowsImported(result.getRowsImported() + batch.size());
+    batch.clear();
+  }
+
+  private void reject(final BeerImportResultDTO result, final String rejection) {
+    result.setRowsRejected(result.getRowsRejected() + 1);
+
+    if (result.getRejections().size() < MAX_REPORTED_REJECTIONS) {
+      result.getRejections().add(rejection);
+    }
+  }
+}
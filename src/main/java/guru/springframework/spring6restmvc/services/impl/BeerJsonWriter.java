@@ -0,0 +1,275 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerInventorySummary;
+import guru.springframework.spring6restmvc.repositories.BeerSummary;
+import guru.springframework.spring6restmvc.services.BeerPageJson;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes a beer list page as the same JSON the {@code PageDTO<BeerDTO>} list response produces, straight from the
+ * query rows to a {@link JsonGenerator}: no {@link BeerDTO} per row, no reflection and field names encoded once. Ids
+ * and timestamps are formatted into one scratch buffer per page instead of a new {@code String} per value. A field
+ * set limits each beer to the listed properties, the same way {@code ?fields=} filters the list response.
+ */
+public final class BeerJsonWriter {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final SerializedString CONTENT = new SerializedString("content");
+  private static final SerializedString NUMBER = new SerializedString("number");
+  private static final SerializedString SIZE = new SerializedString("size");
+  private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+  private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+  private static final SerializedString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+  private static final SerializedString FIRST = new SerializedString("first");
+  private static final SerializedString LAST = new SerializedString("last");
+  private static final SerializedString EMPTY = new SerializedString("empty");
+
+  private static final SerializedString ID = new SerializedString("id");
+  private static final SerializedString VERSION = new SerializedString("version");
+  private static final SerializedString BEER_NAME = new SerializedString("beerName");
+  private static final SerializedString BEER_STYLE = new SerializedString("beerStyle");
+  private static final SerializedString UPC = new SerializedString("upc");
+  private static final SerializedString QUANTITY_ON_HAND = new SerializedString("quantityOnHand");
+  private static final SerializedString PRICE = new SerializedString("price");
+  private static final SerializedString CREATED_DATE = new SerializedString("createdDate");
+  private static final SerializedString UPDATED_DATE = new SerializedString("updatedDate");
+
+  @FunctionalInterface
+  public interface RowWriter<T> {
+    void write(BeerJsonWriter writer, T row) throws IOException;
+  }
+
+  private final JsonGenerator generator;
+
+  // null writes every property
+  private final Set<String> fields;
+
+  // fits a UUID (36) and an ISO local date time with nanos (29)
+  private final char[] buffer = new char[36];
+
+  private BeerJsonWriter(final JsonGenerator generator, final Set<String> fields) {
+    this.generator = generator;
+    this.fields = fields;
+  }
+
+  public static <T> BeerPageJson pageJson(final Page<T> page, final RowWriter<? super T> rowWriter) {
+    return (outputStream, fields) -> writePage(page, rowWriter, outputStream, fields);
+  }
+
+  public static <T> void writePage(final Page<T> page, final RowWriter<? super T> rowWriter,
+                                   final OutputStream outputStream) throws IOException {
+    writePage(page, rowWriter, outputStream, null);
+  }
+
+  public static <T> void writePage(final Page<T> page, final RowWriter<? super T> rowWriter,
+                                   final OutputStream outputStream, final Set<String> fields) throws IOException {
+    try (var generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      final var writer = new BeerJsonWriter(generator, fields);
+
+      generator.writeStartObject();
+      generator.writeFieldName(CONTENT);
+      generator.writeStartArray(page.getContent(), page.getNumberOfElements());
+
+      for (final var row : page.getContent()) {
+        rowWriter.write(writer, row);
+      }
+
+      generator.writeEndArray();
+      generator.writeFieldName(NUMBER);
+      generator.writeNumber(page.getNumber());
+      generator.writeFieldName(SIZE);
+      generator.writeNumber(page.getSize());
+      generator.writeFieldName(TOTAL_ELEMENTS);
+      generator.writeNumber(page.getTotalElements());
+      generator.writeFieldName(TOTAL_PAGES);
+      generator.writeNumber(page.getTotalPages());
+      generator.writeFieldName(NUMBER_OF_ELEMENTS);
+      generator.writeNumber(page.getNumberOfElements());
+      generator.writeFieldName(FIRST);
+      generator.writeBoolean(page.isFirst());
+      generator.writeFieldName(LAST);
+      generator.writeBoolean(page.isLast());
+      generator.writeFieldName(EMPTY);
+      generator.writeBoolean(page.isEmpty());
+      generator.writeEndObject();
+    }
+  }
+
+  public void writeBeer(final BeerSummary beer) throws IOException {
+    this.writeBeer(beer.id(), beer.version(), beer.beerName(), beer.beerStyle(), beer.upc(), null, beer.price(),
+        beer.createdDate(), beer.updatedDate());
+  }
+
+  public void writeBeer(final BeerInventorySummary beer) throws IOException {
+    this.writeBeer(beer.id(), beer.version(), beer.beerName(), beer.beerStyle(), beer.upc(), beer.quantityOnHand(),
+        beer.price(), beer.createdDate(), beer.updatedDate());
+  }
+
+  public void writeBeer(final BeerDTO beer) throws IOException {
+    this.writeBeer(beer.getId(), beer.getVersion(), beer.getBeerName(), beer.getBeerStyle(), beer.getUpc(),
+        beer.getQuantityOnHand(), beer.getPrice(), beer.getCreatedDate(), beer.getUpdatedDate());
+  }
+
+  private void writeBeer(final UUID id, final Integer version, final String beerName, final BeerStyle beerStyle,
+                         final String upc, final Integer quantityOnHand, final BigDecimal price,
+                         final LocalDateTime createdDate, final LocalDateTime updatedDate) throws IOException {
+    this.generator.writeStartObject();
+
+    if (this.writes(ID)) {
+      this.generator.writeFieldName(ID);
+      this.writeUuid(id);
+    }
+    if (this.writes(VERSION)) {
+      this.generator.writeFieldName(VERSION);
+      this.writeNumber(version);
+    }
+    if (this.writes(BEER_NAME)) {
+      this.generator.writeFieldName(BEER_NAME);
+      this.writeString(beerName);
+    }
+    if (this.writes(BEER_STYLE)) {
+      this.generator.writeFieldName(BEER_STYLE);
+      this.writeString(beerStyle == null ? null : beerStyle.name());
+    }
+    if (this.writes(UPC)) {
+      this.generator.writeFieldName(UPC);
+      this.writeString(upc);
+    }
+    if (this.writes(QUANTITY_ON_HAND)) {
+      this.generator.writeFieldName(QUANTITY_ON_HAND);
+      this.writeNumber(quantityOnHand);
+    }
+    if (this.writes(PRICE)) {
+      this.generator.writeFieldName(PRICE);
+      this.generator.writeNumber(price);
+    }
+    if (this.writes(CREATED_DATE)) {
+      this.generator.writeFieldName(CREATED_DATE);
+      this.writeDateTime(createdDate);
+    }
+    if (this.writes(UPDATED_DATE)) {
+      this.generator.writeFieldName(UPDATED_DATE);
+      this.writeDateTime(updatedDate);
+    }
+
+    this.generator.writeEndObject();
+  }
+
+  private boolean writes(final SerializedString field) {
+    return this.fields == null || this.fields.contains(field.getValue());
+  }
+
+  private void writeString(final String value) throws IOException {
+    if (value == null) {
+      this.generator.writeNull();
+    } else {
+      this.generator.writeString(value);
+    }
+  }
+
+  private void writeNumber(final Integer value) throws IOException {
+    if (value == null) {
+      this.generator.writeNull();
+    } else {
+      this.generator.writeNumber(value.intValue());
+    }
+  }
+
+  private void writeUuid(final UUID id) throws IOException {
+    if (id == null) {
+      this.generator.writeNull();
+      return;
+    }
+
+    this.hex(id.getMostSignificantBits() >>> 32, 0, 8);
+    this.buffer[8] = '-';
+    this.hex(id.getMostSignificantBits() >>> 16, 9, 4);
+    this.buffer[13] = '-';
+    this.hex(id.getMostSignificantBits(), 14, 4);
+    this.buffer[18] = '-';
+    this.hex(id.getLeastSignificantBits() >>> 48, 19, 4);
+    this.buffer[23] = '-';
+    this.hex(id.getLeastSignificantBits(), 24, 12);
+
+    this.generator.writeString(this.buffer, 0, 36);
+  }
+
+  /**
+   * Same text as Jackson's LocalDateTimeSerializer with WRITE_DATES_AS_TIMESTAMPS off, i.e.
+   * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}: seconds always, the fraction only without trailing zeros.
+   */
+  private void writeDateTime(final LocalDateTime value) throws IOException {
+    if (value == null) {
+      this.generator.writeNull();
+      return;
+    }
+
+    if (value.getYear() < 0 || value.getYear() > 9999) {
+      this.generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+      return;
+    }
+
+    this.digits(value.getYear(), 0, 4);
+    this.buffer[4] = '-';
+    this.digits(value.getMonthValue(), 5, 2);
+    this.buffer[7] = '-';
+    this.digits(value.getDayOfMonth(), 8, 2);
+    this.buffer[10] = 'T';
+    this.digits(value.getHour(), 11, 2);
+    this.buffer[13] = ':';
+    this.digits(value.getMinute(), 14, 2);
+    this.buffer[16] = ':';
+    this.digits(value.getSecond(), 17, 2);
+
+    var length = 19;
+    var nano = value.getNano();
+
+    if (nano > 0) {
+      var fractionDigits = 9;
+
+      while (nano % 10 == 0) {
+        nano /= 10;
+        fractionDigits--;
+      }
+
+      this.buffer[19] = '.';
+      this.digits(nano, 20, fractionDigits);
+      length = 20 + fractionDigits;
+    }
+
+    this.generator.writeString(this.buffer, 0, length);
+  }
+
+  private void hex(long value, final int offset, final int length) {
+    for (int i = offset + length - 1; i >= offset; i--) {
+      this.buffer[i] = HEX_DIGITS[(int) (value & 0xF)];
+      value >>>= 4;
+    }
+  }
+
+  private void digits(int value, final int offset, final int length) {
+    for (int i = offset + length - 1; i >= offset; i--) {
+      this.buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import guru.springframework.spring6restmvc.config.CacheConfig;
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.enteties.BeerOrder;
+import guru.springframework.spring6restmvc.enteties.BeerOrderLine;
+import guru.springframework.spring6restmvc.enteties.CustomerOrderSummary;
+import guru.springframework.spring6restmvc.exception.BadRequestException;
+import guru.springframework.spring6restmvc.mappers.BeerOrderMapper;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.model.CustomerOrderSummaryDTO;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerOrderSummaryRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerOrderServiceJPA implements BeerOrderService {
+
+  private static final int DEFAULT_PAGE = 0;
+
+  private static final int DEFAULT_PAGE_SIZE = 25;
+
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  private final BeerOrderRepository beerOrderRepository;
+  private final BeerRepository beerRepository;
+  private final CustomerRepository customerRepository;
+  private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+  private final BeerOrderMapper beerOrderMapper;
+  private final CacheManager cacheManager;
+
+  @Override
+  @Transactional
+  public BeerOrderDTO placeOrder(BeerOrderCreateDTO beerOrderCreate) {
+    final var customer = this.customerRepository.findById(beerOrderCreate.getCustomerId())
+        .orElseThrow(() -> new BadRequestException("Unknown customer " + beerOrderCreate.getCustomerId()));
+
+    // several lines for the same beer are allocated together, so they cannot race each other for the last units
+    final Map<UUID, Integer> quantities;
+
+    try {
+      quantities = beerOrderCreate.getBeerOrderLines().stream()
+          .collect(Collectors.toMap(BeerOrderLineCreateDTO::getBeerId, BeerOrderLineCreateDTO::getOrderQuantity,
+              Math::addExact, LinkedHashMap::new));
+    } catch (ArithmeticException e) {
+      // a wrapped sum would reach the conditional update as a negative quantity and add stock instead
+      throw new BadRequestException("Order quantity for one beer is too large", e);
+    }
+
+    final var beers = this.beerRepository.findAllById(quantities.keySet()).stream()
+        .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+    if (beers.size() != quantities.size()) {
+      final var unknownBeerIds = new HashSet<>(quantities.keySet());
+      unknownBeerIds.removeAll(beers.keySet());
+
+      throw new BadRequestException("Unknown beers " + unknownBeerIds);
+    }
+
+    final var allocated = this.beerRepository.allocateInventory(quantities);
+
+    final var beerOrder = BeerOrder.builder()
+        .customer(customer)
+        .customerRef(beerOrderCreate.getCustomerRef())
+        .build();
+
+    quantities.forEach((beerId, quantity) -> beerOrder.addBeerOrderLine(BeerOrderLine.builder()
+        .beer(beers.get(beerId))
+        .orderQuantity(quantity)
+        .quantityAllocated(allocated.contains(beerId) ? quantity : 0)
+        .build()));
+
+    final var beerCache = this.cacheManager.getCache(CacheConfig.BEER_CACHE);
+
+    if (beerCache != null) {
+      allocated.forEach(beerCache::evict);
+    }
+
+    // taken before the order row references the customer: on MySQL the foreign key check would otherwise share the
+    // row first, and a first order's summary update that misses takes a gap lock two first orders could deadlock on
+    this.customerRepository.lockById(customer.getId());
+
+    final var savedBeerOrder = this.beerOrderRepository.save(beerOrder);
+
+    this.recordInCustomerSummary(customer.getId(), quantities.values().stream().mapToLong(Integer::longValue).sum(),
+        Objects.requireNonNullElseGet(savedBeerOrder.getCreatedDate(), LocalDateTime::now));
+
+    log.debug("Placed order for customer {}: {} of {} lines allocated", customer.getId(), allocated.size(),
+        quantities.size());
+
+    return this.beerOrderMapper.beerOrderToBeerOrderDTO(savedBeerOrder);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<BeerOrderDTO> getBeerOrderById(UUID beerOrderId) {
+    return this.beerOrderRepository.findWithLinesById(beerOrderId)
+        .map(this.beerOrderMapper::beerOrderToBeerOrderDTO);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Page<BeerOrderDTO> getBeerOrderPage(UUID customerId, Integer pageNumber, Integer pageSize) {
+    final var queryPageNumber = Objects.nonNull(pageNumber) && pageNumber > DEFAULT_PAGE ? pageNumber : DEFAULT_PAGE;
+    final var queryPageSize = Objects.nonNull(pageSize) && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    final var pageRequest = PageRequest.of(queryPageNumber, queryPageSize, Sort.by(Sort.Order.desc("id")));
+
+    final var idPage = this.beerOrderRepository.findIdPage(customerId, pageRequest);
+
+    if (idPage.isEmpty()) {
+      return new PageImpl<>(List.of(), pageRequest, idPage.getTotalElements());
+    }
+
+    final var beerOrders = this.beerOrderRepository.findAllWithLinesByIdIn(idPage.getContent()).stream()
+        .collect(Collectors.toMap(BeerOrder::getId, Function.identity()));
+
+    return idPage.map(id -> this.beerOrderMapper.beerOrderToBeerOrderDTO(beerOrders.get(id)));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Page<BeerOrderDTO>> getCustomerOrderPage(UUID customerId, Integer pageNumber, Integer pageSize) {
+    if (!this.customerRepository.existsById(customerId)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(this.getBeerOrderPage(customerId, pageNumber, pageSize));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<CustomerOrderSummaryDTO> getCustomerOrderSummary(UUID customerId) {
+    return this.customerOrderSummaryRepository.findById(customerId)
+        .map(this.beerOrderMapper::customerOrderSummaryToDTO)
+        .or(() -> this.customerRepository.existsById(customerId)
+            ? Optional.of(CustomerOrderSummaryDTO.builder().customerId(customerId).build())
+            : Optional.empty());
+  }
+
+  private void recordInCustomerSummary(final UUID customerId, final long quantity, final LocalDateTime orderDate) {
+    // the caller holds the customer lock, so a concurrent first order finds the row inserted here
+    if (this.customerOrderSummaryRepository.recordOrder(customerId, quantity, orderDate) == 0) {
+      this.customerOrderSummaryRepository.save(CustomerOrderSummary.builder()
+          .customerId(customerId)
+          .orderCount(1)
+          .totalQuantity(quantity)
+          .lastOrderDate(orderDate)
+          .build());
+    }
+  }
+}
@@ -2,30 +2,62 @@ package guru.springframework.spring6restmvc.services.impl;
 
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SliceDTO;
+import guru.springframework.spring6restmvc.services.BeerPageJson;
 import guru.springframework.spring6restmvc.services.BeerService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
+/**
+ * Lock-free in-memory backend. Stored beers are immutable snapshots in a {@link ConcurrentHashMap}: writers build a
+ * new snapshot and publish it with a compare-and-set on the previous one, retrying on conflict, and readers always get
+ * copies. Lists are served from sorted secondary indexes (all beers and one per style, ordered by lower-cased name),
+ * so no request sorts: a page walks its index from the start up to the page's last entry, and the name filter is a
+ * case-insensitive "name contains term" like {@link BeerServiceJPA}'s, checked on each key it walks past. The total of
+ * a filtered page takes one more walk over the whole index. Index hits are checked against the current snapshot, so
+ * an entry left behind by racing writers never surfaces.
+ */
 @Slf4j
 @Service
 public class BeerServiceImpl implements BeerService {
-    
-    private final Map<UUID, BeerDTO> beerMap;
+
+    private static final int DEFAULT_PAGE = 0;
+
+    private static final int DEFAULT_PAGE_SIZE = 25;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final Map<UUID, BeerDTO> beerMap = new ConcurrentHashMap<>();
+
+    private final NavigableSet<BeerKey> nameIndex = new ConcurrentSkipListSet<>();
+
+    private final Map<BeerStyle, NavigableSet<BeerKey>> styleIndex = new EnumMap<>(BeerStyle.class);
 
     public BeerServiceImpl() {
-        this.beerMap = new HashMap<>();
-        
+        for (BeerStyle beerStyle : BeerStyle.values()) {
+            this.styleIndex.put(beerStyle, new ConcurrentSkipListSet<>());
+        }
+
         final var lager = BeerDTO.builder()
                 .id(UUID.randomUUID())
                 .beerName("Lager Classic")
@@ -61,20 +93,67 @@ public class BeerServiceImpl implements BeerService {
                 .createdDate(LocalDateTime.now())
                 .updatedDate(LocalDateTime.now())
                 .build();
-        
-        beerMap.put(lager.getId(), lager);
-        beerMap.put(ale.getId(), ale);
-        beerMap.put(pilsner.getId(), pilsner);
+
+        Stream.of(lager, ale, pilsner).forEach(beer -> {
+            this.beerMap.put(beer.getId(), beer);
+            this.addKeys(beer);
+        });
     }
     
     @Override
     public Page<BeerDTO> getBeerPage(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize) {
-        return new PageImpl<>(new ArrayList<>(this.beerMap.values()));
+        final var pageRequest = PageRequest.of(Objects.nonNull(pageNumber) && pageNumber > DEFAULT_PAGE ? pageNumber : DEFAULT_PAGE,
+                this.resolvePageSize(pageSize), Sort.by(Sort.Order.asc("beerName")));
+        final var candidates = this.candidates(beerStyle, null);
+
+        final var content = this.current(candidates.stream(), beerName, beerStyle)
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .map(beer -> this.copy(beer, showInventory))
+                .toList();
+
+        final long total = StringUtils.hasText(beerName) || beerStyle != null
+                ? this.current(candidates.stream(), beerName, beerStyle).count()
+                : this.beerMap.size();
+
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    @Override
+    public BeerPageJson getBeerPageJson(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber,
+                                        Integer pageSize) {
+        return BeerJsonWriter.pageJson(this.getBeerPage(beerName, beerStyle, showInventory, pageNumber, pageSize),
+                BeerJsonWriter::writeBeer);
+    }
+
+    @Override
+    public SliceDTO<BeerDTO> getBeerSlice(String beerName, BeerStyle beerStyle, Boolean showInventory, String cursor, Integer pageSize) {
+        final var after = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor) : KeysetCursor.FIRST;
+        final var sliceSize = Objects.nonNull(pageSize) && pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        
+        final var content = this.current(this.candidates(beerStyle, BeerKey.of(after.key(), after.id())).stream(), beerName, beerStyle)
+                .limit(sliceSize + 1L)
+                .toList();
+        
+        final var hasNext = content.size() > sliceSize;
+        final var sliceContent = hasNext ? content.subList(0, sliceSize) : content;
+        
+        final var last = sliceContent.isEmpty() ? null : sliceContent.get(sliceContent.size() - 1);
+        
+        return SliceDTO.<BeerDTO>builder()
+                .content(sliceContent.stream().map(beer -> this.copy(beer, showInventory)).toList())
+                .nextCursor(hasNext ? new KeysetCursor(last.getBeerName(), last.getId()).encode() : null)
+                .build();
     }
 
     @Override
     public Optional<BeerDTO> getBeerById(UUID id) {
-       return Optional.of(this.beerMap.get(id));
+       return Optional.ofNullable(this.beerMap.get(id)).map(beer -> this.copy(beer, true));
+    }
+
+    @Override
+    public Optional<Integer> getBeerVersion(UUID id) {
+        return Optional.ofNullable(this.beerMap.get(id)).map(BeerDTO::getVersion);
     }
 
     @Override
@@ -87,61 +166,202 @@ public class BeerServiceImpl implements BeerService {
                 .beerStyle(beer.getBeerStyle())
                 .quantityOnHand(beer.getQuantityOnHand())
                 .price(beer.getPrice())
-                .version(beer.getVersion())
+                .version(1)
                 .upc(beer.getUpc())
                 .build();
         
         this.beerMap.put(savedBeer.getId(), savedBeer);
+        this.addKeys(savedBeer);
         
-        return savedBeer;
+        return this.copy(savedBeer, true);
     }
 
     @Override
     public Optional<BeerDTO> updateBeer(UUID beerId, BeerDTO beer) {
-        final var beerToUpdate = this.beerMap.get(beerId);
-        
-        beerToUpdate.setBeerName(beer.getBeerName());
-        beerToUpdate.setBeerStyle(beer.getBeerStyle());
-        beerToUpdate.setUpc(beer.getUpc());
-        beerToUpdate.setPrice(beer.getPrice());
-        beerToUpdate.setQuantityOnHand(beer.getQuantityOnHand());
-        beerToUpdate.setUpdatedDate(LocalDateTime.now());
-        return Optional.of(beerToUpdate);
+        return this.update(beerId, beerToUpdate -> beerToUpdate
+                .beerName(beer.getBeerName())
+                .beerStyle(beer.getBeerStyle())
+                .upc(beer.getUpc())
+                .price(beer.getPrice())
+                .quantityOnHand(beer.getQuantityOnHand()));
     }
 
     @Override
     public Boolean deleteBeerById(UUID beerId) {
-        this.beerMap.remove(beerId);
+        final var removed = this.beerMap.remove(beerId);
         
+        if (removed == null) {
+            return false;
+        }
+
+        this.removeKeys(removed);
+
         return true;
     }
 
     @Override
     public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer) {
-        final var beerToUpdate = this.beerMap.get(beerId);
-        
-        if(StringUtils.hasText(beer.getBeerName())) {
-            beerToUpdate.setBeerName(beer.getBeerName());
+        return this.update(beerId, beerToUpdate -> {
+            if(StringUtils.hasText(beer.getBeerName())) {
+                beerToUpdate.beerName(beer.getBeerName());
+            }
+
+            if(beer.getBeerStyle() != null) {
+                beerToUpdate.beerStyle(beer.getBeerStyle());
+            }
+
+            if(beer.getQuantityOnHand() != null) {
+                beerToUpdate.quantityOnHand(beer.getQuantityOnHand());
+            }
+
+            if(beer.getPrice() != null) {
+                beerToUpdate.price(beer.getPrice());
+            }
+
+            if(StringUtils.hasText(beer.getUpc())) {
+                beerToUpdate.upc(beer.getUpc());
+            }
+
+            return beerToUpdate;
+        });
+    }
+
+    /**
+     * Applies {@code changes} to the current snapshot and publishes the result only if no other writer got there
+     * first, otherwise retries against the newer snapshot. Every successful write bumps the version.
+     */
+    private Optional<BeerDTO> update(final UUID beerId, final UnaryOperator<BeerDTO.BeerDTOBuilder> changes) {
+        while (true) {
+            final var current = this.beerMap.get(beerId);
+
+            if (current == null) {
+                return Optional.empty();
+            }
+
+            final var updated = changes.apply(current.toBuilder())
+                    .version(current.getVersion() == null ? 1 : current.getVersion() + 1)
+                    .updatedDate(LocalDateTime.now())
+                    .build();
+
+            if (this.beerMap.replace(beerId, current, updated)) {
+                this.reindex(current, updated);
+
+                return Optional.of(this.copy(updated, true));
+            }
         }
-        
-        if(beer.getBeerStyle() != null) {
-            beerToUpdate.setBeerStyle(beer.getBeerStyle());
+    }
+
+    /**
+     * Keys of the index for {@code beerStyle}, starting after {@code after} when given.
+     */
+    private NavigableSet<BeerKey> candidates(final BeerStyle beerStyle, final BeerKey after) {
+        final var index = beerStyle == null ? this.nameIndex : this.styleIndex.get(beerStyle);
+
+        return after == null ? index : index.tailSet(after, false);
+    }
+
+    private Stream<BeerDTO> current(final Stream<BeerKey> keys, final String beerName, final BeerStyle beerStyle) {
+        final var term = StringUtils.hasText(beerName) ? normalize(beerName) : null;
+
+        return keys.filter(key -> term == null || key.normalizedName().contains(term))
+                .map(key -> {
+                    final var beer = this.beerMap.get(key.id());
+
+                    return beer != null && key.equals(BeerKey.of(beer)) && (beerStyle == null || beerStyle == beer.getBeerStyle())
+                            ? beer : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    private void reindex(final BeerDTO previous, final BeerDTO updated) {
+        if (BeerKey.of(previous).equals(BeerKey.of(updated)) && previous.getBeerStyle() == updated.getBeerStyle()) {
+            return;
         }
-        
-        if(beer.getQuantityOnHand() != null) {
-            beerToUpdate.setQuantityOnHand(beer.getQuantityOnHand());
+
+        this.addKeys(updated);
+        this.removeKeys(previous);
+        // a racing writer may have replaced this snapshot before its keys were added
+        this.removeKeys(updated);
+    }
+
+    private void addKeys(final BeerDTO beer) {
+        final var key = BeerKey.of(beer);
+
+        this.nameIndex.add(key);
+
+        if (beer.getBeerStyle() != null) {
+            this.styleIndex.get(beer.getBeerStyle()).add(key);
         }
-        
-        if(beer.getPrice() != null) {
-            beerToUpdate.setPrice(beer.getPrice());
+    }
+
+    /**
+     * Drops the index entries of {@code beer} that the current snapshot of the same beer no longer needs. The check and
+     * the removal are not atomic, so a writer may publish a snapshot with this key again in between; the snapshot is
+     * read once more afterwards and its entries are restored.
+     */
+    private void removeKeys(final BeerDTO beer) {
+        final var key = BeerKey.of(beer);
+        final var latest = this.beerMap.get(beer.getId());
+
+        if (latest != null && BeerKey.of(latest).equals(key)) {
+            // the current snapshot still sorts under this name, so only a stale style entry goes
+            if (beer.getBeerStyle() != null && beer.getBeerStyle() != latest.getBeerStyle()) {
+                this.styleIndex.get(beer.getBeerStyle()).remove(key);
+            }
+        } else {
+            this.nameIndex.remove(key);
+
+            if (beer.getBeerStyle() != null) {
+                this.styleIndex.get(beer.getBeerStyle()).remove(key);
+            }
         }
-        
-        if(StringUtils.hasText(beer.getUpc())) {
-            beerToUpdate.setUpc(beer.getUpc());
+
+        final var current = this.beerMap.get(beer.getId());
+
+        if (current != null && BeerKey.of(current).equals(key)) {
+            this.addKeys(current);
+        }
+    }
+
+    private BeerDTO copy(final BeerDTO beer, final Boolean showInventory) {
+        final var copy = beer.toBuilder();
+
+        if (Objects.nonNull(showInventory) && !showInventory) {
+            copy.quantityOnHand(null);
+        }
+
+        return copy.build();
+    }
+
+    private int resolvePageSize(final Integer pageSize) {
+        if (Objects.nonNull(pageSize) && pageSize > DEFAULT_PAGE_SIZE) {
+            return Math.min(pageSize, MAX_PAGE_SIZE);
+        }
+
+        return DEFAULT_PAGE_SIZE;
+    }
+
+    private static String normalize(final String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record BeerKey(String normalizedName, String beerName, UUID id) implements Comparable<BeerKey> {
+
+        private static final Comparator<BeerKey> ORDER = Comparator.comparing(BeerKey::normalizedName)
+                .thenComparing(BeerKey::beerName)
+                .thenComparing(BeerKey::id);
+
+        static BeerKey of(final BeerDTO beer) {
+            return of(beer.getBeerName(), beer.getId());
+        }
+
+        static BeerKey of(final String beerName, final UUID id) {
+            return new BeerKey(normalize(beerName), beerName == null ? "" : beerName, id);
+        }
+
+        @Override
+        public int compareTo(final BeerKey other) {
+            return ORDER.compare(this, other);
         }
-        
-        beerToUpdate.setUpdatedDate(LocalDateTime.now());
-        
-        return Optional.of(beerToUpdate);
     }
 }
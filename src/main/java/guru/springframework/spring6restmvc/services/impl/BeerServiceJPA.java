@@ -1,24 +1,39 @@
 package guru.springframework.spring6restmvc.services.impl;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import guru.springframework.spring6restmvc.config.CacheConfig;
 import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.SliceDTO;
+import guru.springframework.spring6restmvc.repositories.BeerInventorySummary;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.BeerSummary;
+import guru.springframework.spring6restmvc.search.BeerNameIndex;
+import guru.springframework.spring6restmvc.services.BeerPageJson;
 import guru.springframework.spring6restmvc.services.BeerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 @Service
@@ -29,45 +44,106 @@ public class BeerServiceJPA implements BeerService {
   private static final int DEFAULT_PAGE = 0;
 
   private static final int DEFAULT_PAGE_SIZE = 25;
+
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  private static final int MAX_NAME_INDEX_CANDIDATES = 50_000;
   
   private final BeerRepository beerRepository;
   private final BeerMapper beerMapper;
+  private final BeerNameIndex beerNameIndex;
 
   @Override
+  @Transactional(readOnly = true)
   public Page<BeerDTO> getBeerPage(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize) {
-    final Page<Beer> beerPage;
+    final var pageRequest = this.buildPageRequest(pageNumber, pageSize);
+
+    if (Objects.nonNull(showInventory) && !showInventory) {
+      return this.findBeerPage(beerName, beerStyle, pageRequest, BeerSummary.class, BeerSummary::id)
+          .map(this.beerMapper::beerSummaryToBeerDTO);
+    }
 
+    return this.findBeerPage(beerName, beerStyle, pageRequest, BeerInventorySummary.class, BeerInventorySummary::id)
+        .map(this.beerMapper::beerInventorySummaryToBeerDTO);
+  }
+
+  /**
+   * Only loads the page: the controller writes it once this call has returned, so neither a connection nor a service
+   * concurrency permit is held while the rows go out to a possibly slow client.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public BeerPageJson getBeerPageJson(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber,
+                                      Integer pageSize) {
     final var pageRequest = this.buildPageRequest(pageNumber, pageSize);
 
+    if (Objects.nonNull(showInventory) && !showInventory) {
+      return BeerJsonWriter.pageJson(this.findBeerPage(beerName, beerStyle, pageRequest, BeerSummary.class,
+          BeerSummary::id), BeerJsonWriter::writeBeer);
+    }
+
+    return BeerJsonWriter.pageJson(this.findBeerPage(beerName, beerStyle, pageRequest, BeerInventorySummary.class,
+        BeerInventorySummary::id), BeerJsonWriter::writeBeer);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public SliceDTO<BeerDTO> getBeerSlice(String beerName, BeerStyle beerStyle, Boolean showInventory, String cursor, Integer pageSize) {
+    final Slice<Beer> beerSlice;
+
+    final var after = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor) : KeysetCursor.FIRST;
+    final var pageRequest = PageRequest.of(DEFAULT_PAGE, this.resolvePageSize(pageSize));
+
     if (StringUtils.hasText(beerName) && beerStyle == null) {
-      beerPage = this.getBeerListByName(beerName, pageRequest);
+      beerSlice = this.beerRepository.findSliceByBeerNameAfter("%" + beerName + "%", after.key(), after.id(), pageRequest);
     } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
-      beerPage = this.getBeerListByStyle(beerStyle, pageRequest);
+      beerSlice = this.beerRepository.findSliceByBeerStyleAfter(beerStyle, after.key(), after.id(), pageRequest);
     } else if (StringUtils.hasText(beerName) && beerStyle != null) {
-      beerPage = this.getBeerListByNameAndStyle(beerName, beerStyle, pageRequest);
+      beerSlice = this.beerRepository.findSliceByBeerNameAndBeerStyleAfter("%" + beerName + "%", beerStyle, after.key(), after.id(), pageRequest);
     } else {
-      beerPage = this.beerRepository.findAll(pageRequest);
+      beerSlice = this.beerRepository.findSliceAfter(after.key(), after.id(), pageRequest);
     }
-    
+
+    final var content = beerSlice.map(this.beerMapper::beerToBeerDTO).getContent();
+
     if (Objects.nonNull(showInventory) && !showInventory) {
-      beerPage.forEach(beer -> beer.setQuantityOnHand(null));
+      content.forEach(beer -> beer.setQuantityOnHand(null));
     }
-    
-    return beerPage.map(this.beerMapper::beerToBeerDTO);
+
+    final String nextCursor;
+
+    if (beerSlice.hasNext()) {
+      final var last = beerSlice.getContent().get(beerSlice.getNumberOfElements() - 1);
+      nextCursor = new KeysetCursor(last.getBeerName(), last.getId()).encode();
+    } else {
+      nextCursor = null;
+    }
+
+    return SliceDTO.<BeerDTO>builder()
+        .content(content)
+        .nextCursor(nextCursor)
+        .build();
   }
 
   @Override
+  @Cacheable(cacheNames = CacheConfig.BEER_CACHE, key = "#id", sync = true)
   public Optional<BeerDTO> getBeerById(UUID id) {
     return Optional.ofNullable(this.beerMapper.beerToBeerDTO(this.beerRepository.findById(id)
         .orElse(null)));
   }
 
+  @Override
+  public Optional<Integer> getBeerVersion(UUID id) {
+    return this.beerRepository.findVersionById(id);
+  }
+
   @Override
   public BeerDTO saveNewBeer(BeerDTO beer) {
     return this.beerMapper.beerToBeerDTO(this.beerRepository.save(this.beerMapper.beerDTOtoBeer(beer)));
   }
 
   @Override
+  @CachePut(cacheNames = CacheConfig.BEER_CACHE, key = "#beerId", unless = "#result == null")
   public Optional<BeerDTO> updateBeer(UUID beerId, BeerDTO beer) {
     final var atomicReference = new AtomicReference<Optional<BeerDTO>>();
     
@@ -88,6 +164,7 @@ public class BeerServiceJPA implements BeerService {
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.BEER_CACHE, key = "#beerId")
   public Boolean deleteBeerById(UUID beerId) {
       if(this.beerRepository.existsById(beerId)) {
         this.beerRepository.deleteById(beerId);
@@ -99,6 +176,7 @@ public class BeerServiceJPA implements BeerService {
   }
 
   @Override
+  @CachePut(cacheNames = CacheConfig.BEER_CACHE, key = "#beerId", unless = "#result == null")
   public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer) {
     final var atomicReference = new AtomicReference<Optional<BeerDTO>>();
     
@@ -134,21 +212,51 @@ public class BeerServiceJPA implements BeerService {
     return atomicReference.get();
   }
 
-  private Page<Beer> getBeerListByNameAndStyle(final String beerName, final BeerStyle beerStyle, final Pageable pageable) {
-    return this.beerRepository.findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle("%" + beerName + "%", beerStyle, pageable);
-  }
+  /**
+   * Selects only the columns of {@code type}, so list pages never hydrate managed {@link Beer} entities.
+   */
+  private <T> Page<T> findBeerPage(final String beerName, final BeerStyle beerStyle, final Pageable pageable,
+                                   final Class<T> type, final Function<T, UUID> idExtractor) {
+    if (StringUtils.hasText(beerName)) {
+      final var limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), MAX_NAME_INDEX_CANDIDATES);
 
-  private Page<Beer> getBeerListByStyle(final BeerStyle beerStyle, final Pageable pageable) {
-    return this.beerRepository.findAllByBeerStyle(beerStyle, pageable);
+      return this.beerNameIndex.search(beerName, beerStyle, MAX_NAME_INDEX_CANDIDATES, limit)
+          .map(matches -> this.loadIndexedPage(matches, pageable, type, idExtractor))
+          .orElseGet(() -> beerStyle == null
+              ? this.beerRepository.findPageByBeerNameIsLikeIgnoreCase("%" + beerName + "%", pageable, type)
+              : this.beerRepository.findPageByBeerNameIsLikeIgnoreCaseAndBeerStyle("%" + beerName + "%", beerStyle, pageable, type));
+    }
+
+    if (beerStyle != null) {
+      return this.beerRepository.findPageByBeerStyle(beerStyle, pageable, type);
+    }
+
+    return this.beerRepository.findPageBy(pageable, type);
   }
 
-  private Page<Beer> getBeerListByName(final String beerName, final Pageable pageable) {
-    return this.beerRepository.findAllByBeerNameIsLikeIgnoreCase("%" + beerName + "%", pageable);
+  /**
+   * The index hands back the matches up to the end of the page already in list order, so only the requested page is
+   * loaded by primary key.
+   */
+  private <T> Page<T> loadIndexedPage(final BeerNameIndex.Matches matches, final Pageable pageable, final Class<T> type,
+                                      final Function<T, UUID> idExtractor) {
+    final var orderedIds = matches.ids();
+    final var from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+    final var pageIds = orderedIds.subList(from, Math.min(from + pageable.getPageSize(), orderedIds.size()));
+
+    final var beersById = this.beerRepository.findAllByIdIn(pageIds, type).stream()
+        .collect(Collectors.toMap(idExtractor, Function.identity()));
+
+    final var content = pageIds.stream()
+        .map(beersById::get)
+        .filter(Objects::nonNull)
+        .toList();
+
+    return new PageImpl<>(content, pageable, matches.total());
   }
-  
+
   private PageRequest buildPageRequest(final Integer pageNumber, final Integer pageSize) {
     final int queryPageNumber;
-    final int queryPageSize;
     
     if (Objects.nonNull(pageNumber) && pageNumber > DEFAULT_PAGE) {
       queryPageNumber = pageNumber;
@@ -156,18 +264,18 @@ public class BeerServiceJPA implements BeerService {
       queryPageNumber = DEFAULT_PAGE;
     }
     
+    // beer_name's utf8mb4_0900_ai_ci collation orders and matches accent- and case-insensitively, which BeerNameIndex
+    // reproduces for index-served pages; the ignoreCase only matters on databases without such a collation
+    final var sort = Sort.by(Sort.Order.asc("beerName").ignoreCase(), Sort.Order.asc("id"));
+    
+    return PageRequest.of(queryPageNumber, this.resolvePageSize(pageSize), sort);
+  }
+
+  private int resolvePageSize(final Integer pageSize) {
     if (Objects.nonNull(pageSize) && pageSize > DEFAULT_PAGE_SIZE) {
-      if (pageSize > 1000) {
-        queryPageSize = 1000;
-      } else {
-        queryPageSize = pageSize;
-      }
-    } else {
-      queryPageSize = DEFAULT_PAGE_SIZE;
+      return Math.min(pageSize, MAX_PAGE_SIZE);
     }
-    
-    final var sort = Sort.by(Sort.Order.asc("beerName"));
-    
-    return PageRequest.of(queryPageNumber, queryPageSize, sort);
+
+    return DEFAULT_PAGE_SIZE;
   }
 }
@@ -1,26 +1,47 @@
 package guru.springframework.spring6restmvc.services.impl;
 
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
 import guru.springframework.spring6restmvc.services.CustomerService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
+/**
+ * Lock-free in-memory backend. Customers are immutable snapshots in a {@link ConcurrentSkipListMap} kept in id order,
+ * so slices and streams walk the map directly; pages by name walk a sorted name index. Writers publish a new snapshot
+ * with a compare-and-set on the previous one and retry on conflict.
+ */
 @Service
 public class CustomerServiceImpl implements CustomerService {
-    
-    private Map<UUID, CustomerDTO> customerMap;
+
+    private static final int DEFAULT_PAGE_SIZE = 25;
+
+    // unsigned, so ids sort like their string form and like binary(16) keys in the database
+    private static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final ConcurrentNavigableMap<UUID, CustomerDTO> customerMap = new ConcurrentSkipListMap<>(ID_ORDER);
+
+    private final NavigableSet<CustomerKey> nameIndex = new ConcurrentSkipListSet<>();
 
     public CustomerServiceImpl() {
-        this.customerMap = new HashMap<>();
-        
         final var oleg = CustomerDTO.builder()
                 .id(UUID.randomUUID())
                 .name("Pan Oleg")
@@ -44,20 +65,87 @@ public class CustomerServiceImpl implements CustomerService {
                 .createdDateTime(LocalDateTime.now())
                 .lastUpdateDateTime(LocalDateTime.now())
                 .build();
-        
-        customerMap.put(oleg.getId(), oleg);
-        customerMap.put(pavlo.getId(), pavlo);
-        customerMap.put(zlishchev.getId(), zlishchev);
+
+        Stream.of(oleg, pavlo, zlishchev).forEach(customer -> {
+            this.customerMap.put(customer.getId(), customer);
+            this.nameIndex.add(CustomerKey.of(customer));
+        });
     }
 
     @Override
-    public List<CustomerDTO> getCustomersList() {
-        return new ArrayList<>(this.customerMap.values());
+    public Page<CustomerDTO> getCustomerPage(String name, String email, Integer pageNumber, Integer pageSize) {
+        final var pageRequest = PageRequest.of(Objects.nonNull(pageNumber) && pageNumber > 0 ? pageNumber : 0,
+                Objects.nonNull(pageSize) && pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE);
+
+        final var content = this.byName(name, email)
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .map(this::copy)
+                .toList();
+
+        final long total = StringUtils.hasText(name) || StringUtils.hasText(email)
+                ? this.byName(name, email).count()
+                : this.customerMap.size();
+
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    @Override
+    public SliceDTO<CustomerDTO> getCustomerSlice(String name, String email, String cursor, Integer pageSize) {
+        final var after = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor) : KeysetCursor.FIRST;
+        final var sliceSize = Objects.nonNull(pageSize) && pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+
+        final var content = this.streamCustomers(this.customerMap.tailMap(after.id(), false), name, email)
+                .limit(sliceSize + 1L)
+                .toList();
+
+        final var hasNext = content.size() > sliceSize;
+        final var sliceContent = hasNext ? content.subList(0, sliceSize) : content;
+
+        return SliceDTO.<CustomerDTO>builder()
+                .content(sliceContent)
+                .nextCursor(hasNext ? new KeysetCursor("", sliceContent.get(sliceSize - 1).getId()).encode() : null)
+                .build();
+    }
+
+    @Override
+    public Stream<CustomerDTO> streamCustomers(String name, String email) {
+        return this.streamCustomers(this.customerMap, name, email);
+    }
+
+    private Stream<CustomerDTO> streamCustomers(final ConcurrentNavigableMap<UUID, CustomerDTO> customers, final String name,
+                                                final String email) {
+        return customers.values().stream()
+                .filter(customer -> matches(customer, name, email))
+                .map(this::copy);
+    }
+
+    private Stream<CustomerDTO> byName(final String name, final String email) {
+        return this.nameIndex.stream()
+                .map(key -> {
+                    final var customer = this.customerMap.get(key.id());
+
+                    return customer != null && key.equals(CustomerKey.of(customer)) ? customer : null;
+                })
+                .filter(customer -> customer != null && matches(customer, name, email));
+    }
+
+    private static boolean matches(final CustomerDTO customer, final String name, final String email) {
+        return matches(customer.getName(), name) && matches(customer.getEmail(), email);
+    }
+
+    private static boolean matches(final String value, final String term) {
+        return !StringUtils.hasText(term) || (value != null && value.toLowerCase(Locale.ROOT).contains(term.toLowerCase(Locale.ROOT)));
     }
 
     @Override
     public Optional<CustomerDTO> getCustomerById(UUID customerId) {
-        return Optional.of(this.customerMap.get(customerId));
+        return Optional.ofNullable(this.customerMap.get(customerId)).map(this::copy);
+    }
+
+    @Override
+    public Optional<Integer> getCustomerVersion(UUID customerId) {
+        return Optional.ofNullable(this.customerMap.get(customerId)).map(CustomerDTO::getVersion);
     }
 
     @Override
@@ -67,41 +155,102 @@ public class CustomerServiceImpl implements CustomerService {
                 .createdDateTime(LocalDateTime.now())
                 .lastUpdateDateTime(LocalDateTime.now())
                 .name(customer.getName())
-                .version(customer.getVersion())
+                .email(customer.getEmail())
+                .version(1)
                 .build();
         
         this.customerMap.put(savedCustomer.getId(), savedCustomer);
+        this.nameIndex.add(CustomerKey.of(savedCustomer));
         
-        return savedCustomer;
+        return this.copy(savedCustomer);
     }
 
     @Override
     public Optional<CustomerDTO> updateCustomer(UUID customerId, CustomerDTO customer) {
-        final var customerToUpdate = this.customerMap.get(customerId);
-        
-        customerToUpdate.setName(customer.getName());
-        customerToUpdate.setLastUpdateDateTime(LocalDateTime.now());
-        
-        return Optional.of(customerToUpdate);
+        return this.update(customerId, customerToUpdate -> customerToUpdate.name(customer.getName()));
     }
 
     @Override
     public Boolean deleteCustomerById(UUID customerId) {
-        this.customerMap.remove(customerId);
+        final var removed = this.customerMap.remove(customerId);
+
+        if (removed == null) {
+            return false;
+        }
+
+        this.unindex(removed);
         
         return true;
     }
 
     @Override
     public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer) {
-        final var customerToUpdate = this.customerMap.get(customerId);
-        
-        if(StringUtils.hasText(customer.getName())) {
-            customerToUpdate.setName(customer.getName());
+        return this.update(customerId, customerToUpdate -> StringUtils.hasText(customer.getName())
+                ? customerToUpdate.name(customer.getName())
+                : customerToUpdate);
+    }
+
+    private Optional<CustomerDTO> update(final UUID customerId, final UnaryOperator<CustomerDTO.CustomerDTOBuilder> changes) {
+        while (true) {
+            final var current = this.customerMap.get(customerId);
+
+            if (current == null) {
+                return Optional.empty();
+            }
+
+            final var updated = changes.apply(current.toBuilder())
+                    .version(current.getVersion() == null ? 1 : current.getVersion() + 1)
+                    .lastUpdateDateTime(LocalDateTime.now())
+                    .build();
+
+            if (this.customerMap.replace(customerId, current, updated)) {
+                if (!CustomerKey.of(current).equals(CustomerKey.of(updated))) {
+                    this.nameIndex.add(CustomerKey.of(updated));
+                    this.unindex(current);
+                    // a racing writer may have replaced this snapshot before its key was added
+                    this.unindex(updated);
+                }
+
+                return Optional.of(this.copy(updated));
+            }
+        }
+    }
+
+    /**
+     * Drops the name entry of {@code customer} unless the current snapshot still sorts under it. A writer may publish a
+     * snapshot with this key again between the check and the removal, so the entry is restored if it did.
+     */
+    private void unindex(final CustomerDTO customer) {
+        final var key = CustomerKey.of(customer);
+        final var latest = this.customerMap.get(customer.getId());
+
+        if (latest == null || !CustomerKey.of(latest).equals(key)) {
+            this.nameIndex.remove(key);
+
+            final var current = this.customerMap.get(customer.getId());
+
+            if (current != null && CustomerKey.of(current).equals(key)) {
+                this.nameIndex.add(key);
+            }
+        }
+    }
+
+    private CustomerDTO copy(final CustomerDTO customer) {
+        return customer.toBuilder().build();
+    }
+
+    private record CustomerKey(String name, UUID id) implements Comparable<CustomerKey> {
+
+        private static final Comparator<CustomerKey> ORDER = Comparator.comparing(CustomerKey::name)
+                .thenComparing(CustomerKey::id, ID_ORDER);
+
+        static CustomerKey of(final CustomerDTO customer) {
+            return new CustomerKey(customer.getName() == null ? "" : customer.getName(), customer.getId());
+        }
+
+        @Override
+        public int compareTo(final CustomerKey other) {
+            return ORDER.compare(this, other);
         }
-        
-        customerToUpdate.setLastUpdateDateTime(LocalDateTime.now());
-        
-        return Optional.of(customerToUpdate);
     }
 }
@@ -2,16 +2,24 @@ package guru.springframework.spring6restmvc.services.impl;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+import guru.springframework.spring6restmvc.enteties.Customer;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
 import guru.springframework.spring6restmvc.services.CustomerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -19,13 +27,79 @@ import org.springframework.util.StringUtils;
 @Primary
 @RequiredArgsConstructor
 public class CustomerServiceJPA implements CustomerService {
+
+  private static final int DEFAULT_PAGE = 0;
+
+  private static final int DEFAULT_PAGE_SIZE = 25;
+
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  private static final int STREAM_CHUNK_SIZE = 500;
   
   private final CustomerRepository customerRepository;
   private final CustomerMapper customerMapper;
 
   @Override
-  public List<CustomerDTO> getCustomersList() {
-    return this.customerMapper.customerListToCustomerDtoList(this.customerRepository.findAll());
+  public Page<CustomerDTO> getCustomerPage(String name, String email, Integer pageNumber, Integer pageSize) {
+    final var queryPageNumber = Objects.nonNull(pageNumber) && pageNumber > DEFAULT_PAGE ? pageNumber : DEFAULT_PAGE;
+    final var pageRequest = PageRequest.of(queryPageNumber, this.resolvePageSize(pageSize),
+        Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id")));
+
+    return this.customerRepository.findAllMatching(this.toPattern(name), this.toPattern(email), pageRequest)
+        .map(this.customerMapper::customerToCustomerDto);
+  }
+
+  @Override
+  public SliceDTO<CustomerDTO> getCustomerSlice(String name, String email, String cursor, Integer pageSize) {
+    final var after = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor) : KeysetCursor.FIRST;
+    final var customerSlice = this.findSliceAfter(name, email, after.id(), this.resolvePageSize(pageSize));
+
+    return SliceDTO.<CustomerDTO>builder()
+        .content(customerSlice.map(this.customerMapper::customerToCustomerDto).getContent())
+        .nextCursor(customerSlice.hasNext() ? new KeysetCursor("", this.lastId(customerSlice)).encode() : null)
+        .build();
+  }
+
+  @Override
+  public Stream<CustomerDTO> streamCustomers(String name, String email) {
+    final var lastId = new AtomicReference<>(KeysetCursor.FIRST.id());
+
+    return Stream.generate(() -> this.nextChunk(name, email, lastId))
+        .takeWhile(chunk -> !chunk.isEmpty())
+        .flatMap(List::stream);
+  }
+
+  private List<CustomerDTO> nextChunk(final String name, final String email, final AtomicReference<UUID> lastId) {
+    if (lastId.get() == null) {
+      return List.of();
+    }
+
+    final var customerSlice = this.findSliceAfter(name, email, lastId.get(), STREAM_CHUNK_SIZE);
+
+    lastId.set(customerSlice.hasNext() ? this.lastId(customerSlice) : null);
+
+    return customerSlice.map(this.customerMapper::customerToCustomerDto).getContent();
+  }
+
+  private Slice<Customer> findSliceAfter(final String name, final String email, final UUID lastId, final int size) {
+    return this.customerRepository.findSliceMatchingAfter(this.toPattern(name), this.toPattern(email), lastId,
+        PageRequest.of(DEFAULT_PAGE, size));
+  }
+
+  private UUID lastId(final Slice<Customer> customerSlice) {
+    return customerSlice.getContent().get(customerSlice.getNumberOfElements() - 1).getId();
+  }
+
+  private String toPattern(final String value) {
+    return StringUtils.hasText(value) ? "%" + value + "%" : null;
+  }
+
+  private int resolvePageSize(final Integer pageSize) {
+    if (Objects.nonNull(pageSize) && pageSize > DEFAULT_PAGE_SIZE) {
+      return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    return DEFAULT_PAGE_SIZE;
   }
 
   @Override
@@ -34,6 +108,11 @@ public class CustomerServiceJPA implements CustomerService {
         .orElse(null)));
   }
 
+  @Override
+  public Optional<Integer> getCustomerVersion(UUID customerId) {
+    return this.customerRepository.findVersionById(customerId);
+  }
+
   @Override
   public CustomerDTO saveNewCustomer(CustomerDTO customer) {
     return this.customerMapper.customerToCustomerDto(this.customerRepository.save(this.customerMapper.customerDtoToCustomer(customer)));
@@ -0,0 +1,282 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import guru.springframework.spring6restmvc.config.CacheConfig;
+import guru.springframework.spring6restmvc.enteties.InventoryJournalCheckpoint;
+import guru.springframework.spring6restmvc.exception.BadRequestException;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.InventoryJournalCheckpointRepository;
+import guru.springframework.spring6restmvc.services.InventoryDeltaService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind inventory adjustments. Each delta is appended to a local fsynced {@link InventoryJournal} before it is
+ * acknowledged and summed per beer in memory; a scheduled flush applies the sums in one JDBC batch together with the
+ * checkpoint row of this journal's id. Deltas drained by a running flush stay visible through {@link #pendingDelta}
+ * for every beer version read from before it committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryDeltaServiceJPA implements InventoryDeltaService {
+
+  private final BeerRepository beerRepository;
+  private final InventoryJournalCheckpointRepository checkpointRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheManager cacheManager;
+
+  // both maps are guarded by stateLock, so a reader never sees a delta in neither or in both of them
+  private final Map<UUID, Integer> pending = new HashMap<>();
+  private final Map<UUID, InFlightDelta> inFlight = new HashMap<>();
+  private final Object stateLock = new Object();
+  private final Object journalLock = new Object();
+  private final Object flushLock = new Object();
+
+  @Value("${app.inventory.journal-dir}")
+  private Path journalDir;
+
+  private InventoryJournal journal;
+
+  @PostConstruct
+  void recover() throws IOException {
+    this.journal = new InventoryJournal(this.journalDir);
+
+    final var appliedSequence = this.checkpointRepository.findById(this.journal.id())
+        .map(InventoryJournalCheckpoint::getLastSequence)
+        .orElse(0L);
+    final var entries = this.journal.replay(appliedSequence);
+
+    if (entries.isEmpty()) {
+      this.journal.deleteClosedSegments();
+      return;
+    }
+
+    synchronized (this.stateLock) {
+      entries.forEach(entry -> this.pending.merge(entry.beerId(), entry.delta(), Math::addExact));
+
+      log.info("Recovered {} unapplied inventory deltas for {} beers from {}", entries.size(), this.pending.size(),
+          this.journalDir);
+    }
+  }
+
+  @Override
+  public void recordDelta(UUID beerId, int delta) {
+    synchronized (this.journalLock) {
+      synchronized (this.stateLock) {
+        // checked against pending and in-flight together, so a failed flush can always merge them back
+        final var inFlightDelta = this.inFlight.get(beerId);
+        final long total = (long) this.pending.getOrDefault(beerId, 0)
+            + (inFlightDelta == null ? 0 : inFlightDelta.delta()) + delta;
+
+        if (total < Integer.MIN_VALUE || total > Integer.MAX_VALUE) {
+          throw new BadRequestException("Pending inventory adjustments for beer " + beerId + " are out of range");
+        }
+      }
+
+      try {
+        this.journal.append(beerId, delta);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not journal inventory delta for beer " + beerId, e);
+      }
+
+      synchronized (this.stateLock) {
+        this.pending.merge(beerId, delta, Math::addExact);
+      }
+    }
+  }
+
+  @Override
+  public int pendingDelta(UUID beerId, Integer loadedVersion) {
+    synchronized (this.stateLock) {
+      final var inFlightDelta = this.inFlight.get(beerId);
+      final var pendingDelta = this.pending.getOrDefault(beerId, 0);
+
+      if (inFlightDelta == null || inFlightDelta.isApplied(loadedVersion)) {
+        return pendingDelta;
+      }
+
+      return pendingDelta + inFlightDelta.delta();
+    }
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${app.inventory.flush-interval}")
+  public int flush() {
+    synchronized (this.flushLock) {
+      final long sequence;
+
+      // draining and rotating under the append lock makes the drained sums cover exactly the journal up to sequence
+      synchronized (this.journalLock) {
+        synchronized (this.stateLock) {
+          if (this.pending.isEmpty()) {
+            return 0;
+          }
+
+          this.pending.forEach((beerId, delta) -> this.inFlight.put(beerId, new InFlightDelta(delta, null)));
+          this.pending.clear();
+        }
+
+        try {
+          sequence = this.journal.rotate();
+        } catch (IOException e) {
+          this.restoreInFlight();
+          throw new UncheckedIOException("Could not rotate inventory journal", e);
+        }
+      }
+
+      final Map<UUID, Integer> deltas;
+      synchronized (this.stateLock) {
+        deltas = this.inFlight.entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().delta()));
+      }
+
+      final var updated = this.applyIsolatingRejected(deltas, sequence);
+
+      if (updated == null) {
+        this.restoreInFlight();
+
+        return 0;
+      }
+
+      if (updated.size() < deltas.size()) {
+        final var dropped = new HashSet<>(deltas.keySet());
+        dropped.removeAll(updated);
+
+        log.warn("Dropped inventory deltas for {} beers that no longer exist or were rejected: {}", dropped.size(), dropped);
+      }
+
+      synchronized (this.stateLock) {
+        this.inFlight.clear();
+      }
+
+      try {
+        this.journal.deleteClosedSegments();
+      } catch (IOException e) {
+        log.warn("Could not delete applied inventory journal segments, they are skipped on replay", e);
+      }
+
+      log.debug("Flushed inventory deltas for {} beers up to journal sequence {}", updated.size(), sequence);
+
+      return updated.size();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws IOException {
+    this.flush();
+    this.journal.close();
+  }
+
+  /**
+   * Applies the batch; if the database rejects it, finds the beers it rejects one by one and applies the rest, so a
+   * single bad delta cannot hold back every other beer's. Rejected deltas are logged and dropped with the journal.
+   *
+   * @return the beers updated, or {@code null} if the flush failed for another reason and should be retried
+   */
+  private Set<UUID> applyIsolatingRejected(final Map<UUID, Integer> deltas, final long sequence) {
+    try {
+      return this.apply(deltas, sequence);
+    } catch (RuntimeException e) {
+      log.warn("Inventory flush of {} beer deltas failed, checking them one by one", deltas.size(), e);
+    }
+
+    try {
+      final var accepted = new HashMap<>(deltas);
+
+      for (var entry : deltas.entrySet()) {
+        if (this.isRejected(entry.getKey(), entry.getValue())) {
+          log.error("Dropping inventory delta {} for beer {}, the database rejects it", entry.getValue(), entry.getKey());
+          accepted.remove(entry.getKey());
+        }
+      }
+
+      return this.apply(accepted, sequence);
+    } catch (RuntimeException e) {
+      log.warn("Inventory flush failed, {} beer deltas kept for the next attempt", deltas.size(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Tries a single beer's delta in a transaction that is always rolled back. Failures that are not about the data,
+   * such as a lost connection, propagate so the whole flush is retried later.
+   */
+  private boolean isRejected(final UUID beerId, final int delta) {
+    try {
+      this.transactionTemplate.executeWithoutResult(status -> {
+        this.beerRepository.applyInventoryDeltas(Map.of(beerId, delta));
+        status.setRollbackOnly();
+      });
+
+      return false;
+    } catch (DataAccessResourceFailureException e) {
+      throw e;
+    } catch (NonTransientDataAccessException e) {
+      return true;
+    }
+  }
+
+  private Set<UUID> apply(final Map<UUID, Integer> deltas, final long sequence) {
+    return this.transactionTemplate.execute(status -> {
+      // the rows stay locked until commit, so the flush moves each beer from exactly this version to the next one
+      final var baseVersions = this.beerRepository.lockInventoryVersions(deltas.keySet());
+      synchronized (this.stateLock) {
+        baseVersions.forEach((beerId, version) -> this.inFlight.computeIfPresent(beerId,
+            (id, inFlightDelta) -> new InFlightDelta(inFlightDelta.delta(), version)));
+      }
+
+      final var updated = this.beerRepository.applyInventoryDeltas(deltas);
+
+      final var checkpoint = this.checkpointRepository.findById(this.journal.id())
+          .orElseGet(() -> InventoryJournalCheckpoint.builder().name(this.journal.id()).build());
+      checkpoint.setLastSequence(sequence);
+      this.checkpointRepository.save(checkpoint);
+
+      // the beer cache is transaction aware, so these evictions only happen once the update has committed;
+      // the repository does the same for the second-level and style query caches
+      final var beerCache = this.cacheManager.getCache(CacheConfig.BEER_CACHE);
+      if (beerCache != null) {
+        updated.forEach(beerCache::evict);
+      }
+
+      return updated;
+    });
+  }
+
+  private void restoreInFlight() {
+    synchronized (this.stateLock) {
+      this.inFlight.forEach((beerId, inFlightDelta) -> this.pending.merge(beerId, inFlightDelta.delta(), Math::addExact));
+      this.inFlight.clear();
+    }
+  }
+
+  /**
+   * A drained delta and the version its flush found the beer at, once the flush has locked the row.
+   */
+  private record InFlightDelta(int delta, Integer baseVersion) {
+
+    // the locked row cannot change before the flush commits, so any later version already contains the delta
+    boolean isApplied(final Integer loadedVersion) {
+      return this.baseVersion != null && loadedVersion != null && loadedVersion > this.baseVersion;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, fsynced log of inventory deltas split into segments. Each {@link #rotate()} closes the active segment,
+ * so once a flush has committed everything up to the rotated sequence the closed segments can be deleted.
+ * Callers serialise {@link #append}, {@link #rotate} and {@link #replay}; {@link #deleteClosedSegments} may run
+ * alongside appends. Sequences are only meaningful within one directory, which is identified by the {@link #id()}
+ * stored in it on first use.
+ */
+@Slf4j
+final class InventoryJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "inventory-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final String ID_FILE = "journal-id";
+
+    private final Path directory;
+
+    private final String id;
+
+    private final List<Path> closedSegments = new ArrayList<>();
+
+    private FileChannel activeSegment;
+
+    private Path activeSegmentPath;
+
+    private long nextSequence = 1;
+
+    InventoryJournal(final Path directory) throws IOException {
+        if (!directory.isAbsolute()) {
+            throw new IllegalArgumentException("Inventory journal directory must be an absolute path: " + directory);
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.id = readOrCreateId(this.directory.resolve(ID_FILE));
+    }
+
+    /**
+     * Identifies this journal's sequence space, so checkpoints of journals in other directories never apply to it.
+     */
+    String id() {
+        return this.id;
+    }
+
+    /**
+     * Reads every existing segment and returns the entries after {@code appliedSequence}. A torn last line left by a
+     * crash mid-append is skipped. Existing segments count as closed; new appends go to a fresh segment.
+     */
+    List<Entry> replay(final long appliedSequence) throws IOException {
+        final var entries = new ArrayList<Entry>();
+        var lastSequence = appliedSequence;
+
+        try (Stream<Path> segments = Files.list(this.directory)) {
+            for (Path segment : segments.filter(InventoryJournal::isSegment).sorted().toList()) {
+                this.closedSegments.add(segment);
+
+                for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                    final var entry = Entry.parse(line);
+
+                    if (entry == null) {
+                        log.warn("Skipping unreadable inventory journal line in {}: {}", segment, line);
+                        continue;
+                    }
+
+                    lastSequence = Math.max(lastSequence, entry.sequence());
+
+                    if (entry.sequence() > appliedSequence) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+
+        this.nextSequence = lastSequence + 1;
+
+        return entries;
+    }
+
+    long append(final UUID beerId, final int delta) throws IOException {
+        if (this.activeSegment == null) {
+            this.activeSegmentPath = this.directory.resolve("%s%020d%s".formatted(SEGMENT_PREFIX, this.nextSequence, SEGMENT_SUFFIX));
+            this.activeSegment = FileChannel.open(this.activeSegmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        final var sequence = this.nextSequence;
+        final var line = new Entry(sequence, beerId, delta).format();
+
+        final var buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            this.activeSegment.write(buffer);
+        }
+        this.activeSegment.force(false);
+
+        this.nextSequence++;
+
+        return sequence;
+    }
+
+    /**
+     * Closes the active segment and returns the last sequence appended so far.
+     */
+    long rotate() throws IOException {
+        if (this.activeSegment != null) {
+            this.activeSegment.close();
+            synchronized (this.closedSegments) {
+                this.closedSegments.add(this.activeSegmentPath);
+            }
+            this.activeSegment = null;
+            this.activeSegmentPath = null;
+        }
+
+        return this.nextSequence - 1;
+    }
+
+    void deleteClosedSegments() throws IOException {
+        synchronized (this.closedSegments) {
+            for (Path segment : this.closedSegments) {
+                Files.deleteIfExists(segment);
+            }
+
+            this.closedSegments.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.activeSegment != null) {
+            this.activeSegment.close();
+        }
+    }
+
+    private static String readOrCreateId(final Path idFile) throws IOException {
+        if (Files.notExists(idFile)) {
+            // written aside and moved into place, so a crash never leaves an empty or partial id behind
+            final var tempFile = Files.createTempFile(idFile.getParent(), ID_FILE, ".tmp");
+            Files.writeString(tempFile, UUID.randomUUID().toString(), StandardCharsets.UTF_8);
+
+            try (var channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            Files.move(tempFile, idFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        return UUID.fromString(Files.readString(idFile, StandardCharsets.UTF_8).trim()).toString();
+    }
+
+    private static boolean isSegment(final Path path) {
+        final var fileName = path.getFileName().toString();
+
+        return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+    }
+
+    record Entry(long sequence, UUID beerId, int delta) {
+
+        String format() {
+            return this.sequence + " " + this.beerId + " " + this.delta + "\n";
+        }
+
+        static Entry parse(final String line) {
+            final var fields = line.split(" ");
+
+            if (fields.length != 3) {
+                return null;
+            }
+
+            try {
+                return new Entry(Long.parseLong(fields[0]), UUID.fromString(fields[1]), Integer.parseInt(fields[2]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
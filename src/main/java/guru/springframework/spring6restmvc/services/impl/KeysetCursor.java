@@ -0,0 +1,33 @@
+package guru.springframework.spring6restmvc.services.impl;
+
+import guru.springframework.spring6restmvc.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset paging: the sort key and id of the last row returned.
+ */
+record KeysetCursor(String key, UUID id) {
+
+    static final KeysetCursor FIRST = new KeysetCursor("", new UUID(0L, 0L));
+
+    private static final char SEPARATOR = ':';
+
+    static KeysetCursor decode(final String token) {
+        try {
+            final var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final var separatorIndex = decoded.indexOf(SEPARATOR);
+
+            return new KeysetCursor(decoded.substring(separatorIndex + 1), UUID.fromString(decoded.substring(0, separatorIndex)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + token, e);
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((this.id.toString() + SEPARATOR + this.key).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,2 @@
+-- the seed record holds a revision number bumped by hand, not a content checksum
+alter table data_seed rename column checksum to revision;
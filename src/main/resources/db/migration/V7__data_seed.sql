@@ -0,0 +1,8 @@
+create table data_seed
+(
+    name        varchar(50) NOT NULL PRIMARY KEY,
+    version     integer     DEFAULT NULL,
+    checksum    varchar(64) NOT NULL,
+    row_count   bigint      NOT NULL,
+    seeded_date datetime(6) DEFAULT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+create table inventory_journal_checkpoint
+(
+    name          varchar(50) NOT NULL PRIMARY KEY,
+    version       integer     DEFAULT NULL,
+    last_sequence bigint      NOT NULL,
+    updated_date  datetime(6) DEFAULT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+create table customer_order_summary
+(
+    customer_id     binary(16)  NOT NULL PRIMARY KEY,
+    version         integer     DEFAULT NULL,
+    order_count     bigint      NOT NULL,
+    total_quantity  bigint      NOT NULL,
+    last_order_date datetime(6) DEFAULT NULL,
+    CONSTRAINT cos_customer_fk FOREIGN KEY (customer_id) REFERENCES customer (id)
+) ENGINE = InnoDB;
+
+-- backfill from the existing order history; from here on placing an order keeps the row up to date
+insert into customer_order_summary (customer_id, version, order_count, total_quantity, last_order_date)
+select o.customer_id, 0, count(distinct o.id), coalesce(sum(l.order_quantity), 0), max(o.created_date)
+from beer_order o
+         left join beer_order_line l on l.beer_order_id = o.id
+where o.customer_id is not null
+group by o.customer_id;
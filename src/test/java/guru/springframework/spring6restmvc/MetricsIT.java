@@ -0,0 +1,43 @@
+package guru.springframework.spring6restmvc;
+
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static guru.springframework.spring6restmvc.controllers.HttpBasicConstants.JWT_REQUEST_POST_PROCESSOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void testPrometheusScrape() throws Exception {
+        this.mockMvc.perform(get(BeerController.BEER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk());
+
+        final var scrape = this.mockMvc.perform(get("/actuator/prometheus")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(scrape).contains("http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\"");
+        assertThat(scrape).contains("uri=\"/api/v1/beer\"");
+        assertThat(scrape).contains("hikaricp_connections_acquire_seconds_bucket", "hikaricp_connections_pending");
+        assertThat(scrape).contains("hibernate_query_executions_total", "hibernate_entities_loads_total");
+        assertThat(scrape).contains("hibernate_second_level_cache_requests_total", "region=\"category\"", "region=\"beer-categories\"");
+    }
+}
@@ -1,22 +1,28 @@
 package guru.springframework.spring6restmvc.bootstrap;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.*;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
 
-import guru.springframework.spring6restmvc.services.BeerCSVService;
+import guru.springframework.spring6restmvc.repositories.DataSeedRepository;
+import guru.springframework.spring6restmvc.search.BeerNameIndex;
+import guru.springframework.spring6restmvc.search.BeerNameIndexLoader;
+import guru.springframework.spring6restmvc.services.BeerImportService;
 import guru.springframework.spring6restmvc.services.impl.BeerCSVServiceImpl;
+import guru.springframework.spring6restmvc.services.impl.BeerImportServiceJPA;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @DataJpaTest
-@Import(BeerCSVServiceImpl.class)
+@Import({BeerCSVServiceImpl.class, BeerImportServiceJPA.class, BeerNameIndex.class, BeerNameIndexLoader.class})
 class DataInitializerTest {
   
   @Autowired
@@ -24,15 +30,25 @@ class DataInitializerTest {
   
   @Autowired 
   private CustomerRepository customerRepository;
+
+  @Autowired
+  private DataSeedRepository dataSeedRepository;
   
   @Autowired
-  private BeerCSVService beerCSVService;
+  private BeerImportService beerImportService;
+
+  @Autowired
+  private ApplicationEventPublisher applicationEventPublisher;
+
+  @Autowired
+  private BeerNameIndex beerNameIndex;
   
   private DataInitializer dataInitializer;
 
   @BeforeEach
   void beforeEach() {
-    this.dataInitializer = new DataInitializer(beerRepository, customerRepository, beerCSVService);
+    this.dataInitializer = new DataInitializer(beerRepository, customerRepository, dataSeedRepository,
+        beerImportService, applicationEventPublisher);
   }
   
   @Test
@@ -41,5 +57,44 @@ class DataInitializerTest {
     
     assertThat(this.beerRepository.count()).isEqualTo(2413);
     assertThat(this.customerRepository.count()).isEqualTo(3);
+    assertThat(this.dataSeedRepository.findById(DataInitializer.SEED_NAME)).hasValueSatisfying(dataSeed -> {
+      assertThat(dataSeed.getRevision()).isEqualTo(DataInitializer.SEED_REVISION);
+      assertThat(dataSeed.getRowCount()).isEqualTo(2416);
+    });
+  }
+
+  @Test
+  void testSeedSkippedOnceRecorded() throws Exception {
+    this.dataInitializer.run();
+    this.beerRepository.deleteAll();
+
+    assertThat(this.dataInitializer.seed()).isZero();
+    assertThat(this.beerRepository.count()).isZero();
+  }
+
+  // seeding commits on its own thread, so this test runs outside the rolled back test transaction and cleans up itself
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void testAsyncSeedRebuildsNameIndexOnceCommitted() throws Exception {
+    ReflectionTestUtils.setField(this.dataInitializer, "async", true);
+    // only a rebuild marks the index ready again, so this waits for the DataSeededEvent
+    ReflectionTestUtils.setField(this.beerNameIndex, "ready", false);
+
+    try {
+      this.dataInitializer.run();
+
+      final var deadline = System.nanoTime() + 30_000_000_000L;
+      while (!this.beerNameIndex.isReady() && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+
+      assertThat(this.beerNameIndex.isReady()).isTrue();
+      assertThat(this.beerNameIndex.size()).isEqualTo(2413);
+      assertThat(this.beerNameIndex.search("Pilsner Classic", null, 100, 100)).isNotEmpty();
+    } finally {
+      this.dataSeedRepository.deleteAll();
+      this.beerRepository.deleteAll();
+      this.customerRepository.deleteAll();
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private static final String ISSUER = "http://localhost:9001";
+
+    private RSAKey rsaKey;
+
+    private HttpServer jwkSetServer;
+
+    private final AtomicInteger jwkSetFetches = new AtomicInteger();
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JwkSetCache jwkSetCache;
+
+    private CachingJwtDecoder cachingJwtDecoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        final var keyPair = keyPairGenerator.generateKeyPair();
+        this.rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyID("test-key")
+                .build();
+
+        this.jwkSetServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.jwkSetServer.createContext("/oauth2/jwks", exchange -> {
+            this.jwkSetFetches.incrementAndGet();
+            final var body = new JWKSet(this.rsaKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        this.jwkSetServer.start();
+
+        this.jwkSetCache = new JwkSetCache(new RestTemplate(),
+                "http://localhost:%d/oauth2/jwks".formatted(this.jwkSetServer.getAddress().getPort()));
+        final var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, this.jwkSetCache));
+        final var nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        final JwtDecoder countingDecoder = token -> {
+            this.verifications.incrementAndGet();
+            return nimbusJwtDecoder.decode(token);
+        };
+
+        this.cachingJwtDecoder = new CachingJwtDecoder(countingDecoder, 100, this.meterRegistry, this.clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.jwkSetServer.stop(0);
+    }
+
+    @Test
+    void testReusedTokenIsVerifiedOnce() {
+        final var token = this.mintToken(Duration.ofMinutes(5));
+
+        final var first = this.cachingJwtDecoder.decode(token);
+        final var second = this.cachingJwtDecoder.decode(token);
+
+        assertThat(second.getSubject()).isEqualTo(first.getSubject());
+        assertThat(this.verifications).hasValue(1);
+        assertThat(this.jwkSetFetches).hasValue(1);
+        assertThat(this.meterRegistry.get(CachingJwtDecoder.DECODE_TIMER).tag("outcome", "cached").timer().count())
+                .isEqualTo(1);
+        assertThat(this.meterRegistry.get(CachingJwtDecoder.DECODE_TIMER).tag("outcome", "verified").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testTokenIsEvictedWhenItExpires() {
+        final var token = this.mintToken(Duration.ofMinutes(1));
+
+        this.cachingJwtDecoder.decode(token);
+        this.clock.advance(Duration.ofSeconds(61));
+        this.cachingJwtDecoder.decode(token);
+
+        assertThat(this.verifications).hasValue(2);
+    }
+
+    @Test
+    void testRejectedTokenIsNotCached() {
+        final var token = this.mintToken(Duration.ofMinutes(5));
+        final var tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThatThrownBy(() -> this.cachingJwtDecoder.decode(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> this.cachingJwtDecoder.decode(tampered)).isInstanceOf(JwtException.class);
+
+        assertThat(this.verifications).hasValue(2);
+        assertThat(this.meterRegistry.get(CachingJwtDecoder.DECODE_TIMER).tag("outcome", "rejected").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testJwkSetIsOnlyFetchedAgainOnRefresh() {
+        this.cachingJwtDecoder.decode(this.mintToken(Duration.ofMinutes(5)));
+        this.cachingJwtDecoder.decode(this.mintToken(Duration.ofMinutes(6)));
+
+        assertThat(this.jwkSetFetches).hasValue(1);
+
+        this.jwkSetCache.refresh();
+
+        assertThat(this.jwkSetFetches).hasValue(2);
+    }
+
+    private String mintToken(final Duration timeToLive) {
+        final var issuedAt = this.clock.instant();
+        final var claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject("messaging-client")
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(timeToLive))
+                .build();
+        final var encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(this.rsaKey)));
+
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(final Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(final Duration duration) {
+            this.instant = this.instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the embedded server, because MockMvc never performs the error dispatch that {@code sendError} triggers.
+ * All requests come from the same address and share one bucket, so the rate limit test runs last.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.security.public-read.enabled=true",
+        "app.security.public-read.burst=5",
+        "app.security.public-read.requests-per-second=0.01"})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PublicReadErrorDispatchIT {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @Order(1)
+    void testUnknownBeerIsNotFoundForAnonymousReads() throws Exception {
+        final var response = this.get(BeerController.BEER_PATH + "/" + UUID.randomUUID());
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(response.headers().firstValue(HttpHeaders.WWW_AUTHENTICATE)).isEmpty();
+        assertThat(response.headers().firstValue(HttpHeaders.SET_COOKIE)).isEmpty();
+    }
+
+    @Test
+    @Order(2)
+    void testThrottledAnonymousReadsGetTooManyRequests() throws Exception {
+        HttpResponse<String> response;
+
+        do {
+            response = this.get(BeerController.BEER_PATH);
+        } while (response.statusCode() == 200);
+
+        assertThat(response.statusCode()).isEqualTo(429);
+        assertThat(response.headers().firstValue(HttpHeaders.RETRY_AFTER)).isPresent();
+        assertThat(response.headers().firstValue(HttpHeaders.WWW_AUTHENTICATE)).isEmpty();
+    }
+
+    private HttpResponse<String> get(final String path) throws IOException, InterruptedException {
+        return this.httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:%d%s".formatted(this.port, path))).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,95 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.security.public-read.enabled=true",
+        "app.security.public-read.burst=3",
+        "app.security.public-read.requests-per-second=0.01"})
+class PublicReadSecurityConfigIT {
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void testAnonymousCatalogueReads() throws Exception {
+        final var beerId = this.beerRepository.findAll().get(0).getId();
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Set-Cookie"));
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, beerId).with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testEverythingElseStillNeedsAToken() throws Exception {
+        this.mockMvc.perform(get(BeerController.BEER_EXPORT_PATH).with(remoteAddr("10.0.0.2")))
+                .andExpect(status().isUnauthorized());
+        this.mockMvc.perform(patch(BeerController.BEER_PATH_ID, this.beerRepository.findAll().get(0).getId())
+                        .with(remoteAddr("10.0.0.2")))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void testAnonymousReadsAreRateLimitedPerClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("10.0.0.3")))
+                    .andExpect(status().isOk());
+        }
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("10.0.0.3")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("10.0.0.4")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testIpv6ClientsShareABucketPerSlash64() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("2001:db8:0:1::" + i)))
+                    .andExpect(status().isOk());
+        }
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("2001:db8:0:1:ffff::4")))
+                .andExpect(status().isTooManyRequests());
+        this.mockMvc.perform(get(BeerController.BEER_PATH).with(remoteAddr("2001:db8:0:2::1")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor remoteAddr(final String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.security.public-read.enabled=true")
+class ResponseCompressionIT {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void testBeerListIsGzippedWhenAccepted() throws Exception {
+        final var response = this.getBeerList("gzip");
+
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+
+        try (var json = new GZIPInputStream(response.body())) {
+            assertThat(new String(json.readAllBytes())).startsWith("{\"content\":[");
+        }
+    }
+
+    @Test
+    void testBeerListIsPlainWithoutAcceptEncoding() throws Exception {
+        final var response = this.getBeerList(null);
+
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        assertThat(new String(response.body().readAllBytes())).startsWith("{\"content\":[");
+    }
+
+    private HttpResponse<InputStream> getBeerList(final String acceptEncoding) throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(
+                URI.create("http://localhost:%d%s?pageSize=100".formatted(this.port, BeerController.BEER_PATH)));
+
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+
+        final var response = this.httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        return response;
+    }
+}
@@ -0,0 +1,49 @@
+package guru.springframework.spring6restmvc.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQuerySamplingFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private final SlowQuerySamplingFilter filter = new SlowQuerySamplingFilter();
+
+    @Test
+    void testSampleRateZeroDropsSlowQueryLines() {
+        this.filter.setSampleRate(0);
+
+        assertThat(this.decide(SlowQuerySamplingFilter.SLOW_QUERY_LOGGER)).isEqualTo(FilterReply.DENY);
+        assertThat(this.decide("org.hibernate.SQL")).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void testSampleRateOneKeepsSlowQueryLines() {
+        this.filter.setSampleRate(1);
+
+        assertThat(this.decide(SlowQuerySamplingFilter.SLOW_QUERY_LOGGER)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void testSampleRateKeepsRoughlyThatShareOfLines() {
+        this.filter.setSampleRate(0.1);
+
+        var kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (this.decide(SlowQuerySamplingFilter.SLOW_QUERY_LOGGER) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isBetween(700, 1300);
+    }
+
+    private FilterReply decide(final String loggerName) {
+        return this.filter.decide(null, this.loggerContext.getLogger(loggerName), Level.INFO,
+                "Slow query took {} milliseconds", null, null);
+    }
+}
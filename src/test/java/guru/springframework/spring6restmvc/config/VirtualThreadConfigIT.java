@@ -0,0 +1,155 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controllers.BeerController;
+import guru.springframework.spring6restmvc.services.BeerService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.AspectJAroundAdvice;
+import org.springframework.aop.framework.Advised;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static guru.springframework.spring6restmvc.controllers.HttpBasicConstants.JWT_REQUEST_POST_PROCESSOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(properties = {
+        "app.virtual-threads.enabled=true",
+        "app.virtual-threads.max-concurrent-service-calls=3"})
+@AutoConfigureMockMvc
+class VirtualThreadConfigIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    ServiceConcurrencyLimiter serviceConcurrencyLimiter;
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    WebApplicationContext webApplicationContext;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    void testAsyncWorkRunsOnVirtualThreads() throws Exception {
+        final var threadName = this.applicationTaskExecutor.submit(() -> Thread.currentThread().toString()).get();
+
+        assertThat(threadName).startsWith("VirtualThread");
+    }
+
+    @Test
+    void testJpaServicesAreGuardedByTheLimiter() throws Exception {
+        assertThat(this.serviceConcurrencyLimiter.availablePermits()).isEqualTo(3);
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk());
+
+        assertThat(this.serviceConcurrencyLimiter.availablePermits()).isEqualTo(3);
+        assertThat(((Advised) this.beerService).getAdvisors())
+                .anySatisfy(advisor -> assertThat(advisor.getAdvice()).isInstanceOf(AspectJAroundAdvice.class));
+    }
+
+    @Test
+    void testBeerPageJsonIsWrittenWithoutHoldingAConnection() throws Exception {
+        final var pool = this.dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        final var activeConnectionsWhileWriting = new AtomicInteger(-1);
+        final var permitsWhileWriting = new AtomicInteger(-1);
+
+        final var result = MockMvcBuilders.webAppContextSetup(this.webApplicationContext)
+                .apply(springSecurity())
+                .addFilter((request, response, chain) -> chain.doFilter(request,
+                        new FirstWriteProbe((HttpServletResponse) response, () -> {
+                            activeConnectionsWhileWriting.compareAndSet(-1, pool.getActiveConnections());
+                            permitsWhileWriting.compareAndSet(-1, this.serviceConcurrencyLimiter.availablePermits());
+                        })))
+                .build()
+                .perform(get(BeerController.BEER_STREAM_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .queryParam("showInventory", "true"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(activeConnectionsWhileWriting.get()).isZero();
+        assertThat(permitsWhileWriting.get()).isEqualTo(3);
+        assertThat(result.getResponse().getContentAsString()).startsWith("{\"content\":[");
+    }
+
+    /**
+     * Runs a callback just before the first byte of the response body is written.
+     */
+    private static final class FirstWriteProbe extends HttpServletResponseWrapper {
+
+        private final Runnable onFirstWrite;
+
+        private ServletOutputStream outputStream;
+
+        FirstWriteProbe(final HttpServletResponse response, final Runnable onFirstWrite) {
+            super(response);
+            this.onFirstWrite = onFirstWrite;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (this.outputStream == null) {
+                final var delegate = super.getOutputStream();
+
+                this.outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        onFirstWrite.run();
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        onFirstWrite.run();
+                        delegate.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+
+            return this.outputStream;
+        }
+    }
+}
@@ -7,33 +7,55 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.config.CacheConfig;
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.enteties.BeerOrder;
+import guru.springframework.spring6restmvc.enteties.BeerOrderLine;
 import guru.springframework.spring6restmvc.exception.NotFoundException;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchOperation;
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.search.BeerNameIndex;
 import org.hamcrest.core.IsNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @SpringBootTest
 class BeerControllerIT {
@@ -44,9 +66,21 @@ class BeerControllerIT {
     @Autowired
     private BeerRepository beerRepository;
 
+    @Autowired
+    private BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
     @Autowired
     private BeerMapper beerMapper;
 
+    @Autowired
+    private BeerNameIndex beerNameIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -66,14 +100,80 @@ class BeerControllerIT {
     void testGetBeerById() {
         final var beerId = this.beerRepository.findAll().get(0).getId();
 
-        final var beerById = this.beerController.getBeerById(beerId);
+        final var beerById = this.beerController.getBeerById(beerId, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertThat(beerById).isNotNull();
     }
 
     @Test
     void testGetBeerByIdNotFound() {
-        assertThrows(NotFoundException.class, () -> this.beerController.getBeerById(UUID.randomUUID()));
+        assertThrows(NotFoundException.class, () -> this.beerController.getBeerById(UUID.randomUUID(), new ServletWebRequest(new MockHttpServletRequest())));
+    }
+
+    @Test
+    void testGetBeerByIdDoesNotCacheUnknownIds() {
+        final var unknownId = UUID.randomUUID();
+
+        assertThrows(NotFoundException.class, () -> this.beerController.getBeerById(unknownId, new ServletWebRequest(new MockHttpServletRequest())));
+
+        assertThat(this.cacheManager.getCache(CacheConfig.BEER_CACHE).get(unknownId)).isNull();
+    }
+
+    @Test
+    void testGetBeerByIdIsCachedUntilUpdated() {
+        final var beerId = this.beerController.saveNewBeer(BeerDTO.builder()
+                        .beerName("Cached Beer")
+                        .beerStyle(BeerStyle.LAGER)
+                        .upc("123456")
+                        .price(BigDecimal.TEN)
+                        .build())
+                .getHeaders().getLocation().getPath().split("/")[4];
+        final var id = UUID.fromString(beerId);
+
+        final var cached = this.beerController.getBeerById(id, new ServletWebRequest(new MockHttpServletRequest())).getBody();
+
+        final var changedBehindTheService = this.beerRepository.findById(id).get();
+        changedBehindTheService.setBeerName("Changed In Repository");
+        this.beerRepository.save(changedBehindTheService);
+
+        assertThat(this.beerController.getBeerById(id, new ServletWebRequest(new MockHttpServletRequest())).getBody().getBeerName()).isEqualTo(cached.getBeerName());
+
+        final var beerToUpdate = this.beerMapper.beerToBeerDTO(this.beerRepository.findById(id).get());
+        beerToUpdate.setBeerName("Updated Through Service");
+
+        this.beerController.updateBeer(id, beerToUpdate);
+
+        final var updated = this.beerController.getBeerById(id, new ServletWebRequest(new MockHttpServletRequest())).getBody();
+
+        assertThat(updated.getBeerName()).isEqualTo("Updated Through Service");
+        assertThat(updated.getVersion()).isGreaterThan(cached.getVersion());
+
+        this.beerController.deleteBeer(id);
+
+        assertThrows(NotFoundException.class, () -> this.beerController.getBeerById(id, new ServletWebRequest(new MockHttpServletRequest())));
+    }
+
+    @Test
+    void testGetBeerByIdConditional() throws Exception {
+        final var beer = this.beerRepository.findAll().get(0);
+
+        final var etag = this.mockMvc.perform(get(BeerController.BEER_PATH_ID, beer.getId())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).isEqualTo("\"" + beer.getId() + "-" + beer.getVersion() + "\"");
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotModified());
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, beer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + beer.getId() + "-" + (beer.getVersion() - 1) + "\"")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(beer.getId().toString())));
     }
 
     @Test
@@ -93,7 +193,7 @@ class BeerControllerIT {
         final var beerList = this.beerController.getBeerList(null, null, null, null, null);
 
         assertThat(beerList).isNotNull();
-        assertThat(beerList).isEmpty();
+        assertThat(beerList.getContent()).isEmpty();
     }
 
     @Rollback
@@ -221,6 +321,24 @@ class BeerControllerIT {
                 .andExpect(jsonPath("$.content.length()", is(336)));
     }
 
+    @Test
+    void testGetBeersByNamePagesTheSameWithAndWithoutTheIndex() {
+        assertThat(this.beerNameIndex.isReady()).isTrue();
+
+        final var indexed = this.beerController.getBeerList("ipa", null, false, 2, 50);
+
+        ReflectionTestUtils.setField(this.beerNameIndex, "ready", false);
+        try {
+            final var fromDatabase = this.beerController.getBeerList("ipa", null, false, 2, 50);
+
+            assertThat(fromDatabase.getTotalElements()).isEqualTo(indexed.getTotalElements());
+            assertThat(fromDatabase.getContent()).extracting(BeerDTO::getId)
+                    .containsExactlyElementsOf(indexed.getContent().stream().map(BeerDTO::getId).toList());
+        } finally {
+            ReflectionTestUtils.setField(this.beerNameIndex, "ready", true);
+        }
+    }
+
     @Test
     void testGetBeersByStyle() throws Exception {
         this.mockMvc.perform(get(BeerController.BEER_PATH)
@@ -282,6 +400,247 @@ class BeerControllerIT {
                 .andExpect(jsonPath("$.content.[0].quantityOnHand").value(IsNull.notNullValue()));
     }
 
+    @Test
+    void testStreamedBeerListMatchesBeerList() throws Exception {
+        for (final var showInventory : List.of("true", "false")) {
+            final var listed = this.mockMvc.perform(get(BeerController.BEER_PATH)
+                            .queryParam("beerName", "IPA")
+                            .queryParam("showInventory", showInventory)
+                            .queryParam("pageNumber", "1")
+                            .queryParam("pageSize", "50")
+                            .with(JWT_REQUEST_POST_PROCESSOR))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            final var streamed = this.mockMvc.perform(get(BeerController.BEER_STREAM_PATH)
+                            .queryParam("beerName", "IPA")
+                            .queryParam("showInventory", showInventory)
+                            .queryParam("pageNumber", "1")
+                            .queryParam("pageSize", "50")
+                            .with(JWT_REQUEST_POST_PROCESSOR))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()", is(50)))
+                    .andReturn().getResponse().getContentAsString();
+
+            assertThat(this.objectMapper.readTree(streamed)).isEqualTo(this.objectMapper.readTree(listed));
+        }
+    }
+
+    @Test
+    void testStreamedBeerListAppliesSparseFields() throws Exception {
+        final var listed = this.mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("showInventory", "true")
+                        .queryParam("fields", "id, beerName,quantityOnHand")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        final var streamed = this.mockMvc.perform(get(BeerController.BEER_STREAM_PATH)
+                        .queryParam("showInventory", "true")
+                        .queryParam("fields", "id, beerName,quantityOnHand")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].beerName").exists())
+                .andExpect(jsonPath("$.content[0].upc").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(this.objectMapper.readTree(streamed)).isEqualTo(this.objectMapper.readTree(listed));
+    }
+
+    @Test
+    void testGetBeerSlicesByStyle() {
+        final var beerIds = new HashSet<UUID>();
+        String cursor = null;
+        var slices = 0;
+
+        do {
+            final var beerSlice = this.beerController.getBeerSlice(null, BeerStyle.STOUT, null, cursor, null);
+
+            beerSlice.getContent().forEach(beer -> beerIds.add(beer.getId()));
+            cursor = beerSlice.getNextCursor();
+            slices++;
+        } while (cursor != null);
+
+        assertThat(slices).isEqualTo(3);
+        assertThat(beerIds).hasSize(57);
+    }
+
+    @Test
+    void testGetBeerSliceByNameAndStyle() throws Exception {
+        this.mockMvc.perform(get(BeerController.BEER_SLICE_PATH)
+                        .queryParam("beerStyle", BeerStyle.IPA.name())
+                        .queryParam("beerName", "IPA")
+                        .queryParam("showInventory", "false")
+                        .queryParam("pageSize", "500")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(310)))
+                .andExpect(jsonPath("$.content.[0].quantityOnHand").value(IsNull.nullValue()))
+                .andExpect(jsonPath("$.nextCursor").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void testGetBeerSliceInvalidCursor() throws Exception {
+        this.mockMvc.perform(get(BeerController.BEER_SLICE_PATH)
+                        .queryParam("cursor", "not-a-cursor")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Rollback
+    @Transactional
+    @Test
+    void testImportBeers() throws Exception {
+        final var beerCount = this.beerRepository.count();
+
+        final var file = new MockMultipartFile("file", "beer.csv", "text/csv", """
+                "row","count.x","beer","style"
+                "1",1,"Pub Beer","American Pale Lager"
+                "2",2,"","American Pale Ale (APA)"
+                "3",not-a-number,"Devil's Cup","American Pale Ale (APA)"
+                "4",4,"Rise of the Phoenix","American IPA"
+                """.getBytes());
+
+        this.mockMvc.perform(multipart(BeerController.BEER_IMPORT_PATH)
+                        .file(file)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported", is(2)))
+                .andExpect(jsonPath("$.rowsRejected", is(2)))
+                .andExpect(jsonPath("$.rejections.length()", is(2)));
+
+        assertThat(this.beerRepository.count()).isEqualTo(beerCount + 2);
+    }
+
+    @Rollback
+    @Transactional
+    @Test
+    void testProcessBatch() throws Exception {
+        final var beers = this.beerRepository.findAll();
+        final var beerToUpdate = beers.get(0);
+        final var beerToPatch = beers.get(1);
+        final var beerCount = this.beerRepository.count();
+
+        final var updatedBeer = this.beerMapper.beerToBeerDTO(beerToUpdate);
+        updatedBeer.setPrice(new BigDecimal("1.99"));
+
+        final var items = List.of(
+                BeerBatchItemDTO.builder()
+                        .operation(BeerBatchOperation.CREATE)
+                        .beer(BeerDTO.builder()
+                                .beerName("Batch Beer")
+                                .beerStyle(BeerStyle.ALE)
+                                .upc("98765")
+                                .price(BigDecimal.ONE)
+                                .build())
+                        .build(),
+                BeerBatchItemDTO.builder()
+                        .operation(BeerBatchOperation.UPDATE)
+                        .beerId(beerToUpdate.getId())
+                        .beer(updatedBeer)
+                        .build(),
+                BeerBatchItemDTO.builder()
+                        .operation(BeerBatchOperation.PATCH)
+                        .beerId(beerToPatch.getId())
+                        .beer(BeerDTO.builder().beerName("x".repeat(60)).build())
+                        .build(),
+                BeerBatchItemDTO.builder()
+                        .operation(BeerBatchOperation.DELETE)
+                        .beerId(UUID.randomUUID())
+                        .build(),
+                BeerBatchItemDTO.builder()
+                        .beerId(beerToPatch.getId())
+                        .build());
+
+        this.mockMvc.perform(post(BeerController.BEER_BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(items))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(5)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[1].status", is(200)))
+                .andExpect(jsonPath("$[2].status", is(400)))
+                .andExpect(jsonPath("$[3].status", is(404)))
+                .andExpect(jsonPath("$[4].status", is(400)));
+
+        assertThat(this.beerRepository.count()).isEqualTo(beerCount + 1);
+        assertThat(this.beerRepository.findById(beerToUpdate.getId()).get().getPrice()).isEqualByComparingTo("1.99");
+        assertThat(this.beerRepository.findById(beerToPatch.getId()).get().getBeerName()).isEqualTo(beerToPatch.getBeerName());
+    }
+
+    @Test
+    void testProcessBatchReportsConstraintViolationsWithoutDetails() throws Exception {
+        final var orderedBeer = this.beerRepository.save(Beer.builder()
+                .beerName("Batch Ordered Beer")
+                .beerStyle(BeerStyle.ALE)
+                .upc("batch-ordered")
+                .price(BigDecimal.TEN)
+                .build());
+
+        final var beerOrder = BeerOrder.builder()
+                .customer(this.customerRepository.findAll().get(0))
+                .build();
+        beerOrder.addBeerOrderLine(BeerOrderLine.builder()
+                .beer(orderedBeer)
+                .orderQuantity(1)
+                .build());
+        final var savedBeerOrder = this.beerOrderRepository.save(beerOrder);
+
+        try {
+            final var items = List.of(BeerBatchItemDTO.builder()
+                    .operation(BeerBatchOperation.DELETE)
+                    .beerId(orderedBeer.getId())
+                    .build());
+
+            this.mockMvc.perform(post(BeerController.BEER_BATCH_PATH)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(items))
+                            .with(JWT_REQUEST_POST_PROCESSOR))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status", is(409)))
+                    .andExpect(jsonPath("$[0].message", is("conflicts with existing data")));
+
+            assertThat(this.beerRepository.existsById(orderedBeer.getId())).isTrue();
+        } finally {
+            this.beerOrderRepository.deleteById(savedBeerOrder.getId());
+            this.beerRepository.deleteById(orderedBeer.getId());
+        }
+    }
+
+    @Test
+    void testExportBeersAsNdjson() throws Exception {
+        final var mvcResult = this.mockMvc.perform(get(BeerController.BEER_EXPORT_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        final var lines = mvcResult.getResponse().getContentAsString().lines().toList();
+
+        assertThat(lines).hasSize((int) this.beerRepository.count());
+        assertThat(this.objectMapper.readValue(lines.get(0), BeerDTO.class).getId()).isNotNull();
+    }
+
+    @Test
+    void testExportBeersAsCsv() throws Exception {
+        final var mvcResult = this.mockMvc.perform(get(BeerController.BEER_EXPORT_PATH)
+                        .queryParam("format", "CSV")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        final var lines = mvcResult.getResponse().getContentAsString().lines().toList();
+
+        assertThat(lines).hasSize((int) this.beerRepository.count() + 1);
+        assertThat(lines.get(0)).startsWith("\"row\",\"count.x\",\"abv\"");
+    }
+
     @Test
     void testGetBeers_invalidCredentials() throws Exception {
         this.mockMvc.perform(get(BeerController.BEER_PATH))
@@ -2,8 +2,19 @@ package guru.springframework.spring6restmvc.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.spring6restmvc.config.SpringSecConfig;
+import guru.springframework.spring6restmvc.model.BeerBatchItemDTO;
+import guru.springframework.spring6restmvc.model.BeerBatchOperation;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.InventoryAdjustmentDTO;
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.model.BeerImportResultDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
+import guru.springframework.spring6restmvc.services.BeerBatchService;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import guru.springframework.spring6restmvc.services.BeerImportService;
 import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.InventoryDeltaService;
 import guru.springframework.spring6restmvc.services.impl.BeerServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -14,15 +25,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static guru.springframework.spring6restmvc.controllers.HttpBasicConstants.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -44,6 +63,18 @@ class BeerControllerTest {
     @MockBean
     private BeerService beerService;
 
+    @MockBean
+    private BeerImportService beerImportService;
+
+    @MockBean
+    private BeerBatchService beerBatchService;
+
+    @MockBean
+    private BeerExportService beerExportService;
+
+    @MockBean
+    private InventoryDeltaService inventoryDeltaService;
+
     @Captor
     private ArgumentCaptor<UUID> uuidCaptor;
 
@@ -98,7 +129,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdate() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
 
         when(this.beerService.updateBeer(beer.getId(), beer))
                 .thenReturn(Optional.ofNullable(BeerDTO.builder().build()));
@@ -115,7 +146,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdateNullName() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setBeerName(null);
 
         this.mockMvc.perform(put(BeerController.BEER_PATH_ID, beer.getId())
@@ -131,7 +162,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdateBlankName() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setBeerName("   ");
 
         this.mockMvc.perform(put(BeerController.BEER_PATH_ID, beer.getId())
@@ -147,7 +178,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdateNullBeerStyle() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setBeerStyle(null);
 
         this.mockMvc.perform(put(BeerController.BEER_PATH_ID, beer.getId())
@@ -163,7 +194,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdateNullPrice() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setPrice(null);
 
         this.mockMvc.perform(put(BeerController.BEER_PATH_ID, beer.getId())
@@ -179,7 +210,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdateNullUpc() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setUpc(null);
 
         this.mockMvc.perform(put(BeerController.BEER_PATH_ID, beer.getId())
@@ -195,7 +226,7 @@ class BeerControllerTest {
 
     @Test
     void testBeerUpdateBlankUpc() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setUpc("  ");
 
         this.mockMvc.perform(put(BeerController.BEER_PATH_ID, beer.getId())
@@ -211,11 +242,11 @@ class BeerControllerTest {
 
     @Test
     void createBeer() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
 
-        when(this.beerService.saveNewBeer(beer)).thenReturn(this.beerServiceImpl.getBeerPage(null, null, false, 1, 25).getContent().get(1));
+        when(this.beerService.saveNewBeer(beer)).thenReturn(this.beerServiceImpl.getBeerPage(null, null, false, 0, 25).getContent().get(1));
 
         this.mockMvc.perform(post(BeerController.BEER_PATH)
                         .accept(MediaType.APPLICATION_JSON)
@@ -229,7 +260,7 @@ class BeerControllerTest {
 
     @Test
     void createBeerNullName() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
         beer.setBeerName(null);
@@ -245,7 +276,7 @@ class BeerControllerTest {
 
     @Test
     void createBeerBlankName() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
         beer.setBeerName("  ");
@@ -261,7 +292,7 @@ class BeerControllerTest {
 
     @Test
     void createBeerNullBeerStyle() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
         beer.setBeerStyle(null);
@@ -277,7 +308,7 @@ class BeerControllerTest {
 
     @Test
     void createBeerNullPrice() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
         beer.setPrice(null);
@@ -293,7 +324,7 @@ class BeerControllerTest {
 
     @Test
     void createBeerNullUpc() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
         beer.setUpc(null);
@@ -309,7 +340,7 @@ class BeerControllerTest {
 
     @Test
     void createBeerBlankUpc() throws Exception {
-        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var beer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
         beer.setId(null);
         beer.setVersion(null);
         beer.setUpc("  ");
@@ -336,9 +367,206 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.content.length()", is(3)));
     }
 
+    @Test
+    void getBeerListUsesCompactEnvelope() throws Exception {
+        when(this.beerService.getBeerPage(null, null, null, null, null))
+                .thenReturn(this.beerServiceImpl.getBeerPage(null, null, null, null, null));
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.number", is(0)))
+                .andExpect(jsonPath("$.size").isNumber())
+                .andExpect(jsonPath("$.totalPages", is(1)))
+                .andExpect(jsonPath("$.numberOfElements", is(3)))
+                .andExpect(jsonPath("$.first", is(true)))
+                .andExpect(jsonPath("$.last", is(true)))
+                .andExpect(jsonPath("$.empty", is(false)))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+    }
+
+    @Test
+    void getBeerListWithSparseFields() throws Exception {
+        when(this.beerService.getBeerPage(null, null, null, null, null))
+                .thenReturn(this.beerServiceImpl.getBeerPage(null, null, null, null, null));
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("fields", "id,beerName, price")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[0].id").exists())
+                .andExpect(jsonPath("$.content[0].beerName").exists())
+                .andExpect(jsonPath("$.content[0].price").exists())
+                .andExpect(jsonPath("$.content[0].upc").doesNotExist())
+                .andExpect(jsonPath("$.content[0].createdDate").doesNotExist());
+    }
+
+    @Test
+    void getBeerSlice() throws Exception {
+        final var beerSlice = SliceDTO.<BeerDTO>builder()
+                .content(this.beerServiceImpl.getBeerPage(null, null, null, null, null).getContent())
+                .nextCursor("next")
+                .build();
+
+        when(this.beerService.getBeerSlice(null, null, null, "current", 3)).thenReturn(beerSlice);
+
+        this.mockMvc.perform(get(BeerController.BEER_SLICE_PATH)
+                        .queryParam("cursor", "current")
+                        .queryParam("pageSize", "3")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content.length()", is(3)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void importBeers() throws Exception {
+        when(this.beerImportService.importBeers(any(Reader.class))).thenReturn(BeerImportResultDTO.builder()
+                .rowsImported(2)
+                .rowsRejected(1)
+                .rejections(List.of("row 3: beer name is blank"))
+                .build());
+
+        final var file = new MockMultipartFile("file", "beer.csv", "text/csv",
+                "\"row\",\"beer\"\n\"1\",\"Pub Beer\"\n".getBytes());
+
+        this.mockMvc.perform(multipart(BeerController.BEER_IMPORT_PATH)
+                        .file(file)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported", is(2)))
+                .andExpect(jsonPath("$.rowsRejected", is(1)));
+
+        verify(this.beerImportService).importBeers(any(Reader.class));
+    }
+
+    @Test
+    void processBatch() throws Exception {
+        final var beerId = UUID.randomUUID();
+
+        when(this.beerBatchService.processBatch(any())).thenReturn(List.of(BeerBatchResultDTO.builder()
+                .index(0)
+                .operation(BeerBatchOperation.DELETE)
+                .beerId(beerId)
+                .status(HttpStatus.NOT_FOUND.value())
+                .message("beer not found")
+                .build()));
+
+        final var items = List.of(BeerBatchItemDTO.builder()
+                .operation(BeerBatchOperation.DELETE)
+                .beerId(beerId)
+                .build());
+
+        this.mockMvc.perform(post(BeerController.BEER_BATCH_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(items))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].status", is(404)));
+
+        verify(this.beerBatchService).processBatch(any());
+    }
+
+    @Test
+    void exportBeersAsCsv() throws Exception {
+        when(this.beerExportService.exportBeers(eq(BeerExportFormat.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("\"row\",\"beer\"\n\"1\",\"Pub Beer\"\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        final var mvcResult = this.mockMvc.perform(get(BeerController.BEER_EXPORT_PATH)
+                        .queryParam("format", "CSV")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"beers.csv\""));
+
+        assertThat(mvcResult.getResponse().getContentAsString().lines()).hasSize(2);
+    }
+
+    @Test
+    void adjustInventoryReturnsPendingQuantity() throws Exception {
+        final var testBeer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
+
+        when(this.beerService.getBeerById(testBeer.getId())).thenReturn(Optional.of(testBeer));
+        when(this.inventoryDeltaService.pendingDelta(testBeer.getId(), testBeer.getVersion())).thenReturn(-4);
+
+        this.mockMvc.perform(post(BeerController.BEER_INVENTORY_PATH, testBeer.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(InventoryAdjustmentDTO.builder().delta(-4).build()))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.quantityOnHand", is(testBeer.getQuantityOnHand() - 4)));
+
+        verify(this.inventoryDeltaService).recordDelta(testBeer.getId(), -4);
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, testBeer.getId())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + testBeer.getId() + "-" + testBeer.getVersion() + "+-4\""))
+                .andExpect(jsonPath("$.quantityOnHand", is(testBeer.getQuantityOnHand() - 4)));
+    }
+
+    @Test
+    void adjustInventoryWithoutDelta() throws Exception {
+        this.mockMvc.perform(post(BeerController.BEER_INVENTORY_PATH, UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(this.inventoryDeltaService);
+    }
+
+    @Test
+    void adjustInventoryWithTooLargeDelta() throws Exception {
+        this.mockMvc.perform(post(BeerController.BEER_INVENTORY_PATH, UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(InventoryAdjustmentDTO.builder()
+                                .delta(InventoryAdjustmentDTO.MAX_DELTA + 1).build()))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(this.inventoryDeltaService);
+    }
+
+    @Test
+    void getBeerByIdEchoesRequestId() throws Exception {
+        final var testBeer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
+
+        when(this.beerService.getBeerById(testBeer.getId())).thenReturn(Optional.of(testBeer));
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, testBeer.getId())
+                        .header("X-Request-Id", "checkout-42")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Request-Id", "checkout-42"));
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, testBeer.getId())
+                        .header("X-Request-Id", "forged\nline")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Request-Id", matchesPattern("[0-9a-f-]{36}")));
+    }
+
     @Test
     void getBeerById() throws Exception {
-        final var testBeer = this.beerServiceImpl.getBeerPage(null, null, true, 1, 25).getContent().get(0);
+        final var testBeer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
 
         when(this.beerService.getBeerById(testBeer.getId())).thenReturn(Optional.of(testBeer));
 
@@ -347,12 +575,29 @@ class BeerControllerTest {
                         .with(JWT_REQUEST_POST_PROCESSOR))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(testBeer.getId(), testBeer.getVersion())))
                 .andExpect(jsonPath("$.id", is(testBeer.getId().toString())))
                 .andExpect(jsonPath("$.beerName", is(testBeer.getBeerName())));
 
         Mockito.verify(this.beerService).getBeerById(any(UUID.class));
     }
 
+    @Test
+    void getBeerByIdNotModified() throws Exception {
+        final var testBeer = this.beerServiceImpl.getBeerPage(null, null, true, 0, 25).getContent().get(0);
+
+        when(this.beerService.getBeerVersion(testBeer.getId())).thenReturn(Optional.of(testBeer.getVersion()));
+
+        this.mockMvc.perform(get(BeerController.BEER_PATH_ID, testBeer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, EntityTags.of(testBeer.getId(), testBeer.getVersion()))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(testBeer.getId(), testBeer.getVersion())));
+
+        Mockito.verify(this.beerService, Mockito.never()).getBeerById(any(UUID.class));
+    }
+
     @Test
     void getBeerById_invalidCredentials() throws Exception {
         this.mockMvc.perform(get(BeerController.BEER_PATH_ID, UUID.randomUUID())
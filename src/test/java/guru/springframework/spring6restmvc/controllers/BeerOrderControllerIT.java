@@ -0,0 +1,395 @@
+package guru.springframework.spring6restmvc.controllers;
+
+import static guru.springframework.spring6restmvc.controllers.HttpBasicConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.enteties.BeerOrder;
+import guru.springframework.spring6restmvc.enteties.BeerOrderLine;
+import guru.springframework.spring6restmvc.enteties.BeerOrderShipment;
+import guru.springframework.spring6restmvc.enteties.Customer;
+import guru.springframework.spring6restmvc.exception.BadRequestException;
+import guru.springframework.spring6restmvc.exception.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerOrderSummaryRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+class BeerOrderControllerIT {
+
+    @Autowired
+    private BeerOrderController beerOrderController;
+
+    @Autowired
+    private BeerController beerController;
+
+    @Autowired
+    private BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerOrderSummaryRepository customerOrderSummaryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    MockMvc mockMvc;
+
+    private UUID customerId;
+
+    private Beer testBeer;
+
+    private final List<UUID> placedOrderIds = new ArrayList<>();
+
+    private final List<UUID> createdCustomerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac)
+                .apply(springSecurity())
+                .build();
+
+        this.customerId = this.customerRepository.findAll().get(0).getId();
+        this.testBeer = this.beerRepository.save(Beer.builder()
+                .beerName("Order Test Lager")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("order-test")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(10)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.beerOrderRepository.deleteAllById(this.placedOrderIds);
+        this.customerOrderSummaryRepository.deleteAllById(this.createdCustomerIds);
+        this.customerRepository.deleteAllById(this.createdCustomerIds);
+        this.beerRepository.deleteById(this.testBeer.getId());
+    }
+
+    @Test
+    void testPlaceOrderAllocatesInventory() {
+        final var placedOrder = this.placeOrder(4);
+
+        assertThat(placedOrder.getCustomerId()).isEqualTo(this.customerId);
+        assertThat(placedOrder.getBeerOrderLines().get(0).getQuantityAllocated()).isEqualTo(4);
+
+        final var beer = this.beerRepository.findById(this.testBeer.getId()).get();
+
+        assertThat(beer.getQuantityOnHand()).isEqualTo(6);
+        assertThat(beer.getVersion()).isEqualTo(this.testBeer.getVersion() + 1);
+    }
+
+    @Test
+    void testPlaceOrderRefreshesCachedStyleList() {
+        // the style list is served from the query cache, so the first call caches the row with 10 on hand
+        assertThat(this.quantityInLagerList()).isEqualTo(10);
+
+        this.placeOrder(7);
+
+        assertThat(this.quantityInLagerList()).isEqualTo(3);
+    }
+
+    @Test
+    void testPlaceOrderWithoutEnoughStock() {
+        final var placedOrder = this.placeOrder(11);
+
+        assertThat(placedOrder.getBeerOrderLines().get(0).getOrderQuantity()).isEqualTo(11);
+        assertThat(placedOrder.getBeerOrderLines().get(0).getQuantityAllocated()).isZero();
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).get().getQuantityOnHand()).isEqualTo(10);
+    }
+
+    @Test
+    void testConcurrentOrdersNeverOversell() throws Exception {
+        final var executor = Executors.newFixedThreadPool(8);
+        final var orders = new ArrayList<Callable<BeerOrderDTO>>();
+
+        for (int i = 0; i < 25; i++) {
+            orders.add(() -> this.placeOrder(1));
+        }
+
+        var allocated = 0;
+
+        try {
+            for (var future : executor.invokeAll(orders)) {
+                allocated += future.get().getBeerOrderLines().get(0).getQuantityAllocated();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(allocated).isEqualTo(10);
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).get().getQuantityOnHand()).isZero();
+    }
+
+    @Test
+    void testPlaceOrderMergesLinesForTheSameBeer() {
+        final var placedOrder = this.placeOrder(this.customerId, 3, 4);
+
+        assertThat(placedOrder.getBeerOrderLines()).hasSize(1);
+        assertThat(placedOrder.getBeerOrderLines().get(0).getOrderQuantity()).isEqualTo(7);
+        assertThat(placedOrder.getBeerOrderLines().get(0).getQuantityAllocated()).isEqualTo(7);
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).get().getQuantityOnHand()).isEqualTo(3);
+    }
+
+    @Test
+    void testPlaceOrderRejectsLinesWhoseSumOverflows() {
+        assertThrows(BadRequestException.class, () -> this.placeOrder(this.customerId, Integer.MAX_VALUE, 2));
+
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).get().getQuantityOnHand()).isEqualTo(10);
+    }
+
+    @Test
+    void testPlaceOrderMvcRejectsTooLargeQuantity() throws Exception {
+        final var beerOrderCreate = BeerOrderCreateDTO.builder()
+                .customerId(this.customerId)
+                .beerOrderLines(List.of(
+                        BeerOrderLineCreateDTO.builder().beerId(this.testBeer.getId()).orderQuantity(Integer.MAX_VALUE).build(),
+                        BeerOrderLineCreateDTO.builder().beerId(this.testBeer.getId()).orderQuantity(2).build()))
+                .build();
+
+        this.mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(beerOrderCreate))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isBadRequest());
+
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).get().getQuantityOnHand()).isEqualTo(10);
+    }
+
+    @Test
+    void testPlaceOrderUnknownBeer() {
+        final var beerOrderCreate = BeerOrderCreateDTO.builder()
+                .customerId(this.customerId)
+                .beerOrderLines(List.of(BeerOrderLineCreateDTO.builder()
+                        .beerId(UUID.randomUUID())
+                        .orderQuantity(1)
+                        .build()))
+                .build();
+
+        assertThrows(BadRequestException.class, () -> this.beerOrderController.placeOrder(beerOrderCreate));
+    }
+
+    @Test
+    void testPlaceOrderMvc() throws Exception {
+        final var beerOrderCreate = BeerOrderCreateDTO.builder()
+                .customerId(this.customerId)
+                .customerRef("mvc order")
+                .beerOrderLines(List.of(BeerOrderLineCreateDTO.builder()
+                        .beerId(this.testBeer.getId())
+                        .orderQuantity(2)
+                        .build()))
+                .build();
+
+        final var response = this.mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(beerOrderCreate))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.customerRef", is("mvc order")))
+                .andExpect(jsonPath("$.beerOrderLines[0].quantityAllocated", is(2)))
+                .andReturn()
+                .getResponse();
+
+        this.placedOrderIds.add(this.objectMapper.readValue(response.getContentAsString(), BeerOrderDTO.class).getId());
+    }
+
+    @Test
+    void testGetBeerOrderById() {
+        final var placedOrder = this.placeOrder(1);
+
+        final var beerOrder = this.beerOrderController.getBeerOrderById(placedOrder.getId());
+
+        assertThat(beerOrder.getBeerOrderLines()).hasSize(1);
+        assertThat(beerOrder.getBeerOrderLines().get(0).getBeerName()).isEqualTo("Order Test Lager");
+    }
+
+    @Test
+    void testGetBeerOrderByIdNotFound() {
+        assertThrows(NotFoundException.class, () -> this.beerOrderController.getBeerOrderById(UUID.randomUUID()));
+    }
+
+    @Test
+    void testCustomerOrderSummaryTracksPlacedOrders() {
+        final var before = this.beerOrderController.getCustomerOrderSummary(this.customerId);
+
+        final var firstOrder = this.placeOrder(2);
+        final var secondOrder = this.placeOrder(3);
+
+        final var after = this.beerOrderController.getCustomerOrderSummary(this.customerId);
+
+        assertThat(after.getOrderCount()).isEqualTo(before.getOrderCount() + 2);
+        assertThat(after.getTotalQuantity()).isEqualTo(before.getTotalQuantity() + 5);
+        assertThat(after.getLastOrderDate()).isNotNull();
+
+        final var orders = this.beerOrderController.getCustomerOrderList(this.customerId, 0, 1000);
+
+        assertThat(orders.getContent()).extracting(BeerOrderDTO::getId).contains(firstOrder.getId(), secondOrder.getId());
+    }
+
+    @Test
+    void testConcurrentFirstOrdersOfACustomerAreAllCounted() throws Exception {
+        final var customer = this.customerRepository.save(Customer.builder()
+                .name("First Order Customer")
+                .email("first-order@example.com")
+                .build());
+        this.createdCustomerIds.add(customer.getId());
+
+        final var executor = Executors.newFixedThreadPool(8);
+        final var orders = new ArrayList<Callable<BeerOrderDTO>>();
+
+        for (int i = 0; i < 8; i++) {
+            orders.add(() -> this.placeOrder(customer.getId(), 1));
+        }
+
+        try {
+            for (var future : executor.invokeAll(orders)) {
+                assertThat(future.get().getCustomerId()).isEqualTo(customer.getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final var summary = this.beerOrderController.getCustomerOrderSummary(customer.getId());
+
+        assertThat(summary.getOrderCount()).isEqualTo(8);
+        assertThat(summary.getTotalQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    void testCustomerOrderSummaryCustomerNotFound() {
+        assertThrows(NotFoundException.class, () -> this.beerOrderController.getCustomerOrderSummary(UUID.randomUUID()));
+        assertThrows(NotFoundException.class, () -> this.beerOrderController.getCustomerOrderList(UUID.randomUUID(), null, null));
+    }
+
+    @Rollback
+    @Transactional
+    @Test
+    void testGetBeerOrderListUsesConstantNumberOfStatements() {
+        final var customer = this.customerRepository.findById(this.customerId).get();
+        final var beers = this.beerRepository.findAll();
+
+        for (int i = 0; i < 12; i++) {
+            final var beerOrder = BeerOrder.builder()
+                    .customer(customer)
+                    .customerRef("statement count " + i)
+                    .beerOrderShipment(BeerOrderShipment.builder()
+                            .trackingNumber("track-" + i)
+                            .build())
+                    .build();
+
+            for (int line = 0; line < 3; line++) {
+                beerOrder.addBeerOrderLine(BeerOrderLine.builder()
+                        .beer(beers.get((i + line) % beers.size()))
+                        .orderQuantity(1)
+                        .quantityAllocated(1)
+                        .build());
+            }
+
+            this.beerOrderRepository.save(beerOrder);
+        }
+
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        final var statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final var statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        try {
+            final var page = this.beerOrderController.getBeerOrderList(this.customerId, 0, 10);
+
+            assertThat(page.getContent()).hasSize(10);
+            assertThat(page.getTotalElements()).isEqualTo(12);
+            assertThat(page.getContent()).allSatisfy(beerOrder -> {
+                assertThat(beerOrder.getBeerOrderLines()).hasSize(3);
+                assertThat(beerOrder.getBeerOrderLines().get(0).getBeerName()).isNotNull();
+                assertThat(beerOrder.getBeerOrderShipment().getTrackingNumber()).startsWith("track-");
+            });
+
+            // id page, count and one fetch of the orders with lines, beers and shipments
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    private Integer quantityInLagerList() {
+        return this.beerController.getBeerList(null, BeerStyle.LAGER, true, 0, 1000).getContent().stream()
+                .filter(beer -> beer.getId().equals(this.testBeer.getId()))
+                .findFirst()
+                .orElseThrow()
+                .getQuantityOnHand();
+    }
+
+    private BeerOrderDTO placeOrder(final int quantity) {
+        return this.placeOrder(this.customerId, quantity);
+    }
+
+    private BeerOrderDTO placeOrder(final UUID customerId, final int... lineQuantities) {
+        final var placedOrder = this.beerOrderController.placeOrder(BeerOrderCreateDTO.builder()
+                .customerId(customerId)
+                .beerOrderLines(Arrays.stream(lineQuantities)
+                        .mapToObj(quantity -> BeerOrderLineCreateDTO.builder()
+                                .beerId(this.testBeer.getId())
+                                .orderQuantity(quantity)
+                                .build())
+                        .toList())
+                .build()).getBody();
+
+        synchronized (this.placedOrderIds) {
+            this.placedOrderIds.add(placedOrder.getId());
+        }
+
+        return placedOrder;
+    }
+}
@@ -0,0 +1,165 @@
+package guru.springframework.spring6restmvc.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.config.SpringSecConfig;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineDTO;
+import guru.springframework.spring6restmvc.model.CustomerOrderSummaryDTO;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static guru.springframework.spring6restmvc.controllers.HttpBasicConstants.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BeerOrderController.class)
+@Import(SpringSecConfig.class)
+class BeerOrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BeerOrderService beerOrderService;
+
+    @Test
+    void placeOrder() throws Exception {
+        final var beerId = UUID.randomUUID();
+        final var beerOrderCreate = BeerOrderCreateDTO.builder()
+                .customerId(UUID.randomUUID())
+                .beerOrderLines(List.of(BeerOrderLineCreateDTO.builder()
+                        .beerId(beerId)
+                        .orderQuantity(3)
+                        .build()))
+                .build();
+
+        when(this.beerOrderService.placeOrder(any(BeerOrderCreateDTO.class))).thenReturn(BeerOrderDTO.builder()
+                .id(UUID.randomUUID())
+                .customerId(beerOrderCreate.getCustomerId())
+                .beerOrderLines(List.of(BeerOrderLineDTO.builder()
+                        .beerId(beerId)
+                        .orderQuantity(3)
+                        .quantityAllocated(3)
+                        .build()))
+                .build());
+
+        this.mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(beerOrderCreate))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.beerOrderLines[0].quantityAllocated", is(3)));
+    }
+
+    @Test
+    void getBeerOrderById() throws Exception {
+        final var beerOrderId = UUID.randomUUID();
+
+        when(this.beerOrderService.getBeerOrderById(beerOrderId)).thenReturn(Optional.of(BeerOrderDTO.builder()
+                .id(beerOrderId)
+                .customerRef("ref")
+                .build()));
+
+        this.mockMvc.perform(get(BeerOrderController.BEER_ORDER_PATH_ID, beerOrderId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(beerOrderId.toString())))
+                .andExpect(jsonPath("$.customerRef", is("ref")));
+    }
+
+    @Test
+    void getBeerOrderByIdNotFound() throws Exception {
+        when(this.beerOrderService.getBeerOrderById(any(UUID.class))).thenReturn(Optional.empty());
+
+        this.mockMvc.perform(get(BeerOrderController.BEER_ORDER_PATH_ID, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getBeerOrderList() throws Exception {
+        final var customerId = UUID.randomUUID();
+
+        when(this.beerOrderService.getBeerOrderPage(customerId, null, null)).thenReturn(new PageImpl<>(List.of(
+                BeerOrderDTO.builder().id(UUID.randomUUID()).customerId(customerId).build(),
+                BeerOrderDTO.builder().id(UUID.randomUUID()).customerId(customerId).build())));
+
+        this.mockMvc.perform(get(BeerOrderController.BEER_ORDER_PATH)
+                        .queryParam("customerId", customerId.toString())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(2)))
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    void getCustomerOrderSummary() throws Exception {
+        final var customerId = UUID.randomUUID();
+
+        when(this.beerOrderService.getCustomerOrderSummary(customerId)).thenReturn(Optional.of(CustomerOrderSummaryDTO.builder()
+                .customerId(customerId)
+                .orderCount(3)
+                .totalQuantity(14)
+                .build()));
+
+        this.mockMvc.perform(get(BeerOrderController.CUSTOMER_ORDER_SUMMARY_PATH, customerId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId", is(customerId.toString())))
+                .andExpect(jsonPath("$.orderCount", is(3)))
+                .andExpect(jsonPath("$.totalQuantity", is(14)));
+    }
+
+    @Test
+    void getCustomerOrderListCustomerNotFound() throws Exception {
+        when(this.beerOrderService.getCustomerOrderPage(any(UUID.class), any(), any())).thenReturn(Optional.empty());
+
+        this.mockMvc.perform(get(BeerOrderController.CUSTOMER_ORDERS_PATH, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void placeOrderWithoutLines() throws Exception {
+        final var beerOrderCreate = BeerOrderCreateDTO.builder()
+                .customerId(UUID.randomUUID())
+                .beerOrderLines(List.of())
+                .build();
+
+        this.mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(beerOrderCreate))
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isBadRequest());
+
+        verify(this.beerOrderService, never()).placeOrder(any(BeerOrderCreateDTO.class));
+    }
+}
@@ -2,6 +2,12 @@ package guru.springframework.spring6restmvc.controllers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static guru.springframework.spring6restmvc.controllers.HttpBasicConstants.JWT_REQUEST_POST_PROCESSOR;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.UUID;
 
@@ -19,12 +25,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MockMvcBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @SpringBootTest
 class CustomerControllerIT {
@@ -38,26 +46,68 @@ class CustomerControllerIT {
     @Autowired
     private CustomerMapper customerMapper;
 
+    @Autowired
+    WebApplicationContext wac;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac)
+                .apply(springSecurity())
+                .build();
+    }
+
     @Test
     void testGetCustomerById() {
         final var customerId = this.customerRepository.findAll().get(0).getId();
 
-        final var customerById = this.customerController.getCustomerById(customerId);
+        final var customerById = this.customerController.getCustomerById(customerId, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertThat(customerById).isNotNull();
     }
 
     @Test
     void testGetCustomerByIdNotFound() {
-        assertThrows(NotFoundException.class, () -> this.customerController.getCustomerById(UUID.randomUUID()));
+        assertThrows(NotFoundException.class, () -> this.customerController.getCustomerById(UUID.randomUUID(), new ServletWebRequest(new MockHttpServletRequest())));
     }
 
     @Test
     void testGetCustomerList() {
-        final var customers = this.customerController.getCustomersList();
+        final var customers = this.customerController.getCustomerList(null, null, null, null);
 
         assertThat(customers).isNotNull();
-        assertThat(customers.size()).isEqualTo(3);
+        assertThat(customers.getContent().size()).isEqualTo(3);
+    }
+
+    @Test
+    void testGetCustomerListByName() {
+        final var customers = this.customerController.getCustomerList("pan", null, 0, 25);
+
+        assertThat(customers.getTotalElements()).isEqualTo(2);
+        assertThat(customers.getContent().get(0).getName()).isEqualTo("Pan Oleg");
+    }
+
+    @Test
+    void testGetCustomerSlice() {
+        final var slice = this.customerController.getCustomerSlice(null, null, null, null);
+
+        assertThat(slice.getContent()).hasSize(3);
+        assertThat(slice.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testStreamCustomers() throws Exception {
+        final var mvcResult = this.mockMvc.perform(get(CustomerController.CUSTOMER_STREAM_PATH)
+                        .queryParam("name", "pan")
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        assertThat(mvcResult.getResponse().getContentAsString().lines()).hasSize(2);
     }
 
     @Rollback
@@ -66,10 +116,10 @@ class CustomerControllerIT {
     void testGetCustomerEmptyList() {
         this.customerRepository.deleteAll();
 
-        final var customers = this.customerController.getCustomersList();
+        final var customers = this.customerController.getCustomerList(null, null, null, null);
 
         assertThat(customers).isNotNull();
-        assertThat(customers).isEmpty();
+        assertThat(customers.getContent()).isEmpty();
     }
 
     @Rollback
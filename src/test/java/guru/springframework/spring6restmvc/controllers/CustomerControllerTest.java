@@ -4,6 +4,7 @@ package guru.springframework.spring6restmvc.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.spring6restmvc.config.SpringSecConfig;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.model.SliceDTO;
 import guru.springframework.spring6restmvc.services.CustomerService;
 import guru.springframework.spring6restmvc.services.impl.CustomerServiceImpl;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -24,6 +26,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.core.Is.is;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
@@ -96,7 +99,7 @@ class CustomerControllerTest {
     
     @Test
     void testCustomerUpdate() throws Exception {
-        final var customer = this.customerServiceImpl.getCustomersList().get(0);
+        final var customer = this.customerServiceImpl.getCustomerPage(null, null, 0, 25).getContent().get(0);
 
         when(this.customerService.updateCustomer(customer.getId(), customer)).thenReturn(Optional.of(customer));
         
@@ -112,11 +115,12 @@ class CustomerControllerTest {
     
     @Test
     void createCustomer() throws Exception {
-        final var customer = this.customerServiceImpl.getCustomersList().get(0);
+        final var customers = this.customerServiceImpl.getCustomerPage(null, null, 0, 25).getContent();
+        final var customer = customers.get(0);
         customer.setId(null);
         customer.setVersion(null);
         
-        when(this.customerService.saveNewCustomer(customer)).thenReturn(this.customerServiceImpl.getCustomersList().get(1));
+        when(this.customerService.saveNewCustomer(customer)).thenReturn(customers.get(1));
         
         this.mockMvc.perform(post(CustomerController.CUSTOMER_PATH)
                 .accept(MediaType.APPLICATION_JSON)
@@ -130,19 +134,57 @@ class CustomerControllerTest {
     
     @Test
     void getCustomersList() throws Exception {
-        when(this.customerService.getCustomersList()).thenReturn(this.customerServiceImpl.getCustomersList());
+        when(this.customerService.getCustomerPage(null, null, null, null))
+                .thenReturn(this.customerServiceImpl.getCustomerPage(null, null, null, null));
         
         mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
                 .accept(MediaType.APPLICATION_JSON)
                         .with(JWT_REQUEST_POST_PROCESSOR))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()", is(3)));
+                .andExpect(jsonPath("$.content.length()", is(3)));
+    }
+
+    @Test
+    void getCustomerSlice() throws Exception {
+        final var customers = this.customerServiceImpl.getCustomerPage(null, null, 0, 25).getContent();
+
+        when(this.customerService.getCustomerSlice("Pan", null, null, 2)).thenReturn(SliceDTO.<CustomerDTO>builder()
+                .content(customers.subList(0, 2))
+                .nextCursor("next")
+                .build());
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_SLICE_PATH)
+                        .queryParam("name", "Pan")
+                        .queryParam("pageSize", "2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(2)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void streamCustomers() throws Exception {
+        when(this.customerService.streamCustomers(null, null))
+                .thenReturn(this.customerServiceImpl.streamCustomers(null, null));
+
+        final var mvcResult = mockMvc.perform(get(CustomerController.CUSTOMER_STREAM_PATH)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+
+        assertThat(mvcResult.getResponse().getContentAsString().lines()).hasSize(3);
     }
 
     @Test
     void getCustomerById() throws Exception {
-        final var testCustomer = this.customerServiceImpl.getCustomersList().get(0);
+        final var testCustomer = this.customerServiceImpl.getCustomerPage(null, null, 0, 25).getContent().get(0);
         
         when(this.customerService.getCustomerById(testCustomer.getId())).thenReturn(Optional.of(testCustomer));
         
@@ -155,6 +197,21 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.name", is(testCustomer.getName())));
     }
 
+    @Test
+    void getCustomerByIdNotModified() throws Exception {
+        final var testCustomer = this.customerServiceImpl.getCustomerPage(null, null, 0, 25).getContent().get(0);
+
+        when(this.customerService.getCustomerVersion(testCustomer.getId())).thenReturn(Optional.of(testCustomer.getVersion()));
+
+        this.mockMvc.perform(get(CustomerController.CUSTOMER_PATH_ID, testCustomer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, EntityTags.of(testCustomer.getId(), testCustomer.getVersion()))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotModified());
+
+        verify(this.customerService, never()).getCustomerById(any(UUID.class));
+    }
+
     @Test
     void getCustomerById_invalidCredentials() throws Exception {
         this.mockMvc.perform(get(CustomerController.CUSTOMER_PATH_ID, UUID.randomUUID())
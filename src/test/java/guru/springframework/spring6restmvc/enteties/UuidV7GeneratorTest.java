@@ -0,0 +1,39 @@
+package guru.springframework.spring6restmvc.enteties;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void testVersionAndVariant() {
+        final var uuid = UuidV7Generator.nextUuid();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void testIdsAreTimeOrdered() {
+        final var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7Generator.nextUuid());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    void testTimestampPrefix() {
+        final var before = System.currentTimeMillis();
+        final var uuid = UuidV7Generator.nextUuid();
+
+        assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+    }
+}
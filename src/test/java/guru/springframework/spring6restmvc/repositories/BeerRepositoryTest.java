@@ -5,11 +5,16 @@ import guru.springframework.spring6restmvc.enteties.Beer;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import guru.springframework.spring6restmvc.services.BeerCSVService;
 import guru.springframework.spring6restmvc.services.impl.BeerCSVServiceImpl;
+import guru.springframework.spring6restmvc.services.impl.BeerImportServiceJPA;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ConstraintViolationException;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,12 +24,15 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
-@Import({DataInitializer.class, BeerCSVServiceImpl.class})
+@Import({DataInitializer.class, BeerCSVServiceImpl.class, BeerImportServiceJPA.class})
 class BeerRepositoryTest {
 
     @Autowired
     private BeerRepository beerRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void testSaveBeer() {
         final var savedBeer = this.beerRepository.save(Beer.builder()
@@ -57,7 +65,7 @@ class BeerRepositoryTest {
 
     @Test
     void testGetAllBeersByName() {
-        final var list = this.beerRepository.findAllByBeerNameIsLikeIgnoreCase("%IPA%", null);
+        final var list = this.beerRepository.findPageByBeerNameIsLikeIgnoreCase("%IPA%", Pageable.unpaged(), BeerSummary.class);
 
         assertNotNull(list);
         assertThat(list).hasSize(336);
@@ -65,7 +73,7 @@ class BeerRepositoryTest {
 
     @Test
     void testGetAllBeersByStyle() {
-        final var list = this.beerRepository.findAllByBeerStyle(BeerStyle.STOUT, null);
+        final var list = this.beerRepository.findPageByBeerStyle(BeerStyle.STOUT, Pageable.unpaged(), BeerSummary.class);
         
         assertNotNull(list);
         assertThat(list).hasSize(57);
@@ -73,9 +81,22 @@ class BeerRepositoryTest {
 
     @Test
     void testGetAllBeersByNameAndStyle() {
-        final var list = this.beerRepository.findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle("%IPA%", BeerStyle.IPA, null);
+        final var list = this.beerRepository.findPageByBeerNameIsLikeIgnoreCaseAndBeerStyle("%IPA%", BeerStyle.IPA, Pageable.unpaged(),
+                BeerSummary.class);
 
         assertNotNull(list);
         assertThat(list).hasSize(310);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetBeerSummariesByStyleLeavesPersistenceContextEmpty() {
+        this.entityManager.clear();
+
+        final var page = this.beerRepository.findPageByBeerStyle(BeerStyle.STOUT, PageRequest.of(0, 10), BeerSummary.class);
+
+        assertThat(page.getTotalElements()).isEqualTo(57);
+        assertThat(page.getContent()).hasSize(10)
+                .allSatisfy(beerSummary -> assertThat(beerSummary.beerStyle()).isEqualTo(BeerStyle.STOUT));
+        assertThat(this.entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+}
@@ -0,0 +1,154 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.enteties.Category;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private UUID beerId;
+
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.entityManagerFactory.getCache().evictAll();
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            final var category = this.categoryRepository.save(Category.builder()
+                    .description("Cached category")
+                    .build());
+            final var beer = Beer.builder()
+                    .beerName("Cached beer")
+                    .beerStyle(BeerStyle.GOSE)
+                    .upc("cached-upc")
+                    .price(BigDecimal.TEN)
+                    .quantityOnHand(10)
+                    .build();
+            // Category maps the same join table, so only the beer side is populated to avoid a duplicate row
+            beer.getCategories().add(category);
+
+            this.beerId = this.beerRepository.save(beer).getId();
+            this.categoryId = category.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            final var beer = this.beerRepository.findById(this.beerId).orElseThrow();
+            final var category = this.categoryRepository.findById(this.categoryId).orElseThrow();
+            beer.getCategories().remove(category);
+            this.beerRepository.delete(beer);
+            this.categoryRepository.delete(category);
+        });
+    }
+
+    @Test
+    void testBeerCategoriesServedFromSecondLevelCache() {
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findById(this.beerId).orElseThrow().getCategories()).hasSize(1));
+
+        final var categoryHits = this.statistics.getDomainDataRegionStatistics(Category.CACHE_REGION).getHitCount();
+        final var collectionHits = this.statistics.getDomainDataRegionStatistics(Beer.CATEGORIES_CACHE_REGION).getHitCount();
+        final var statements = this.statistics.getPrepareStatementCount();
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findById(this.beerId).orElseThrow().getCategories())
+                        .extracting(Category::getDescription)
+                        .containsExactly("Cached category"));
+
+        assertThat(this.statistics.getDomainDataRegionStatistics(Category.CACHE_REGION).getHitCount()).isGreaterThan(categoryHits);
+        assertThat(this.statistics.getDomainDataRegionStatistics(Beer.CATEGORIES_CACHE_REGION).getHitCount()).isGreaterThan(collectionHits);
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void testBeersStayOutOfSecondLevelCache() {
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findById(this.beerId).orElseThrow().getCategories()).hasSize(1));
+
+        // JDBC inventory batches update beer rows behind Hibernate's back, so only their category links are cached
+        assertThat(this.entityManagerFactory.getCache().contains(Beer.class, this.beerId)).isFalse();
+        assertThat(this.entityManagerFactory.getCache().contains(Category.class, this.categoryId)).isTrue();
+    }
+
+    @Test
+    void testFindPageByBeerStyleUsesQueryCacheUntilBeerIsWritten() {
+        final var pageable = PageRequest.of(0, 25);
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findPageByBeerStyle(BeerStyle.GOSE, pageable, BeerInventorySummary.class)).hasSize(1));
+
+        final var hits = this.statistics.getQueryRegionStatistics(BeerRepository.STYLE_QUERY_CACHE_REGION).getHitCount();
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findPageByBeerStyle(BeerStyle.GOSE, pageable, BeerInventorySummary.class)).hasSize(1));
+
+        assertThat(this.statistics.getQueryRegionStatistics(BeerRepository.STYLE_QUERY_CACHE_REGION).getHitCount()).isGreaterThan(hits);
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            final var beer = this.beerRepository.findById(this.beerId).orElseThrow();
+            beer.setBeerName("Renamed cached beer");
+        });
+
+        final var misses = this.statistics.getQueryRegionStatistics(BeerRepository.STYLE_QUERY_CACHE_REGION).getMissCount();
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findPageByBeerStyle(BeerStyle.GOSE, pageable, BeerInventorySummary.class))
+                        .extracting(BeerInventorySummary::beerName)
+                        .containsExactly("Renamed cached beer"));
+
+        assertThat(this.statistics.getQueryRegionStatistics(BeerRepository.STYLE_QUERY_CACHE_REGION).getMissCount()).isGreaterThan(misses);
+    }
+
+    @Test
+    void testFindPageByBeerStyleSeesJdbcInventoryAllocation() {
+        final var pageable = PageRequest.of(0, 25);
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findPageByBeerStyle(BeerStyle.GOSE, pageable, BeerInventorySummary.class))
+                        .extracting(BeerInventorySummary::quantityOnHand)
+                        .containsExactly(10));
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.allocateInventory(Map.of(this.beerId, 4))).containsExactly(this.beerId));
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                assertThat(this.beerRepository.findPageByBeerStyle(BeerStyle.GOSE, pageable, BeerInventorySummary.class))
+                        .extracting(BeerInventorySummary::quantityOnHand)
+                        .containsExactly(6));
+    }
+}
@@ -0,0 +1,183 @@
+package guru.springframework.spring6restmvc.search;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerNameIndexTest {
+
+    private final UUID paleAle = UUID.randomUUID();
+    private final UUID ipa = UUID.randomUUID();
+    private final UUID stout = UUID.randomUUID();
+
+    private BeerNameIndex beerNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.beerNameIndex = new BeerNameIndex();
+        this.beerNameIndex.rebuild(() -> List.of(
+                view(this.paleAle, "Crank Yankee Pale Ale", BeerStyle.PALE_ALE),
+                view(this.ipa, "Sunny Haze IPA", BeerStyle.IPA),
+                view(this.stout, "Mango Bango Stout", BeerStyle.STOUT)));
+    }
+
+    @Test
+    void testSearchIsCaseInsensitiveContains() {
+        assertThat(this.beerNameIndex.search("ANGO", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(this.stout));
+        assertThat(this.beerNameIndex.search("ale", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(this.paleAle));
+    }
+
+    @Test
+    void testSearchFiltersByStyleAndOrdersByName() {
+        this.beerNameIndex.index(UUID.randomUUID(), "Sunny Haze Stout", BeerStyle.STOUT);
+        final var stouts = this.beerNameIndex.search("stout", BeerStyle.STOUT, 100, 100).orElseThrow().ids();
+
+        assertThat(stouts).hasSize(2);
+        assertThat(stouts.get(0)).isEqualTo(this.stout);
+        assertThat(this.beerNameIndex.search("haze", BeerStyle.IPA, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(this.ipa));
+    }
+
+    @Test
+    void testSearchOrdersLikeTheDatabaseFallback() {
+        final var lowerId = new UUID(0x7000000000000000L, 0L);
+        final var higherId = new UUID(0x8000000000000000L, 0L);
+
+        final var amber = UUID.randomUUID();
+
+        this.beerNameIndex.index(higherId, "pils zwickel", BeerStyle.PILSNER);
+        this.beerNameIndex.index(lowerId, "PILS ZWICKEL", BeerStyle.PILSNER);
+        this.beerNameIndex.index(amber, "Pils Amber", BeerStyle.PILSNER);
+
+        // names compare case-insensitively and ties by id as unsigned bytes, so 0x80... sorts after 0x70...
+        assertThat(this.beerNameIndex.search("pils", null, 100, 100)).map(BeerNameIndex.Matches::ids)
+                .contains(List.of(amber, lowerId, higherId));
+    }
+
+    @Test
+    void testSearchIgnoresAccentsLikeTheColumnCollation() {
+        final var koelsch = UUID.randomUUID();
+        final var weissbier = UUID.randomUUID();
+
+        this.beerNameIndex.index(koelsch, "Kölsch", BeerStyle.ALE);
+        this.beerNameIndex.index(weissbier, "Weißbier", BeerStyle.WHEAT);
+
+        assertThat(this.beerNameIndex.search("kolsch", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(koelsch));
+        assertThat(this.beerNameIndex.search("KÖL", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(koelsch));
+        assertThat(this.beerNameIndex.search("weiss", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(weissbier));
+    }
+
+    @Test
+    void testSearchOrdersPunctuationBeforeDigitsBeforeLetters() {
+        final var plain = UUID.randomUUID();
+        final var underscore = UUID.randomUUID();
+        final var hyphen = UUID.randomUUID();
+        final var digit = UUID.randomUUID();
+        final var spaced = UUID.randomUUID();
+
+        this.beerNameIndex.index(spaced, "Porter a", BeerStyle.PORTER);
+        this.beerNameIndex.index(digit, "Porter1", BeerStyle.PORTER);
+        this.beerNameIndex.index(hyphen, "Porter-a", BeerStyle.PORTER);
+        this.beerNameIndex.index(underscore, "Porter_a", BeerStyle.PORTER);
+        this.beerNameIndex.index(plain, "Porter", BeerStyle.PORTER);
+
+        // a prefix sorts first, then whitespace and punctuation in DUCET order, then digits
+        assertThat(this.beerNameIndex.search("porter", null, 100, 100)).map(BeerNameIndex.Matches::ids)
+                .contains(List.of(plain, spaced, underscore, hyphen, digit));
+    }
+
+    @Test
+    void testSearchReturnsOnlyTheFirstMatchesAndTheTotal() {
+        for (int i = 0; i < 20; i++) {
+            this.beerNameIndex.index(UUID.randomUUID(), "Stout " + (char) ('t' - i), BeerStyle.STOUT);
+        }
+
+        final var all = this.beerNameIndex.search("stout", null, 100, 100).orElseThrow();
+        final var first = this.beerNameIndex.search("stout", null, 100, 5).orElseThrow();
+
+        assertThat(all.total()).isEqualTo(21);
+        assertThat(first.total()).isEqualTo(21);
+        assertThat(first.ids()).containsExactlyElementsOf(all.ids().subList(0, 5));
+    }
+
+    @Test
+    void testSearchWithoutMatches() {
+        assertThat(this.beerNameIndex.search("Porter", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of());
+    }
+
+    @Test
+    void testSearchFallsBackForShortTermsWildcardsAndTooManyCandidates() {
+        assertThat(this.beerNameIndex.search("ip", null, 100, 100)).isEmpty();
+        assertThat(this.beerNameIndex.search("Ha%e", null, 100, 100)).isEmpty();
+        assertThat(this.beerNameIndex.search("an", null, 0, 100)).isEmpty();
+        assertThat(this.beerNameIndex.search("ang", null, 0, 100)).isEmpty();
+    }
+
+    @Test
+    void testSearchFallsBackWhenTheFoldedTermIsTooShort() {
+        // three chars, but the combining diaeresis folds away and leaves only "ko"
+        assertThat(this.beerNameIndex.search("Ko\u0308", null, 100, 100)).isEmpty();
+    }
+
+    @Test
+    void testIndexUpdatesAndRemovals() {
+        this.beerNameIndex.index(this.ipa, "Sunny Haze Lager", BeerStyle.LAGER);
+
+        assertThat(this.beerNameIndex.search("IPA", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of());
+        assertThat(this.beerNameIndex.search("lager", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(this.ipa));
+
+        this.beerNameIndex.remove(this.ipa);
+
+        assertThat(this.beerNameIndex.search("lager", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of());
+        assertThat(this.beerNameIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testChangesWhileTheSnapshotIsReadSurviveTheRebuild() {
+        final var added = UUID.randomUUID();
+
+        this.beerNameIndex.rebuild(() -> {
+            // after-commit updates of writes the snapshot query did not see yet
+            this.beerNameIndex.index(added, "Galaxy Porter", BeerStyle.PORTER);
+            this.beerNameIndex.index(this.ipa, "Sunny Haze Lager", BeerStyle.LAGER);
+            this.beerNameIndex.remove(this.stout);
+
+            return List.of(
+                    view(this.paleAle, "Crank Yankee Pale Ale", BeerStyle.PALE_ALE),
+                    view(this.ipa, "Sunny Haze IPA", BeerStyle.IPA),
+                    view(this.stout, "Mango Bango Stout", BeerStyle.STOUT));
+        });
+
+        assertThat(this.beerNameIndex.search("porter", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(added));
+        assertThat(this.beerNameIndex.search("lager", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of(this.ipa));
+        assertThat(this.beerNameIndex.search("stout", null, 100, 100)).map(BeerNameIndex.Matches::ids).contains(List.of());
+    }
+
+    @Test
+    void testSearchBeforeRebuildFallsBack() {
+        assertThat(new BeerNameIndex().search("Stout", null, 100, 100)).isEmpty();
+    }
+
+    private static BeerNameView view(final UUID id, final String beerName, final BeerStyle beerStyle) {
+        return new BeerNameView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getBeerName() {
+                return beerName;
+            }
+
+            @Override
+            public BeerStyle getBeerStyle() {
+                return beerStyle;
+            }
+        };
+    }
+}
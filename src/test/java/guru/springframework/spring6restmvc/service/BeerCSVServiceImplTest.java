@@ -2,10 +2,18 @@ package guru.springframework.spring6restmvc.service;
 
 import guru.springframework.spring6restmvc.services.BeerCSVService;
 import guru.springframework.spring6restmvc.services.impl.BeerCSVServiceImpl;
+import guru.springframework.spring6restmvc.enteties.Beer;
+import com.opencsv.exceptions.CsvException;
+import guru.springframework.spring6restmvc.model.BeerStyle;
 import org.junit.jupiter.api.Test;
 import org.springframework.util.ResourceUtils;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,4 +31,43 @@ public class BeerCSVServiceImplTest {
         
         assertThat(records.size()).isGreaterThan(0);
     }
+
+    @Test
+    void testStreamCSVRejectsMalformedRows() {
+        final var csv = """
+                "row","count.x","beer","style"
+                "1",1,"Pub Beer","American Pale Lager"
+                "2",not-a-number,"Devil's Cup","American Pale Ale (APA)"
+                "3",3,"Rise of the Phoenix","American IPA"
+                """;
+        final var rejections = new ArrayList<CsvException>();
+
+        final var records = this.beerCSVService.streamCSV(new StringReader(csv), rejections::add).toList();
+
+        assertThat(records).hasSize(2);
+        assertThat(rejections).hasSize(1);
+        assertThat(this.beerCSVService.toBeer(records.get(1)).getBeerStyle()).isEqualTo(BeerStyle.IPA);
+    }
+
+    @Test
+    void testWriteCSVRoundTrips() throws IOException {
+        final var beer = Beer.builder()
+                .beerName("Galaxy Cat")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .quantityOnHand(12)
+                .build();
+        final var writer = new StringWriter();
+
+        this.beerCSVService.writeCSV(writer, Stream.of(this.beerCSVService.toBeerCSVRecord(beer, 1)));
+
+        final var records = this.beerCSVService.streamCSV(new StringReader(writer.toString()), exception -> {
+            throw new IllegalStateException(exception);
+        }).toList();
+
+        assertThat(writer.toString()).startsWith("\"row\",\"count.x\",\"abv\",\"ibu\",\"id\",\"beer\",\"style\"");
+        assertThat(records).hasSize(1);
+        assertThat(this.beerCSVService.toBeer(records.get(0)).getBeerName()).isEqualTo("Galaxy Cat");
+        assertThat(this.beerCSVService.toBeer(records.get(0)).getBeerStyle()).isEqualTo(BeerStyle.PALE_ALE);
+        assertThat(records.get(0).getCount()).isEqualTo(12);
+    }
 }
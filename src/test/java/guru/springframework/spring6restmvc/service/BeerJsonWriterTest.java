@@ -0,0 +1,55 @@
+package guru.springframework.spring6restmvc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.model.PageDTO;
+import guru.springframework.spring6restmvc.services.impl.BeerJsonWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testWritesTheSameJsonAsJackson() throws Exception {
+        final var beers = List.of(
+                beer(LocalDateTime.of(2023, 1, 2, 3, 4), LocalDateTime.of(2023, 1, 2, 3, 4, 5, 120_000_000)),
+                beer(LocalDateTime.of(999, 12, 31, 23, 59, 59, 123_456_789), LocalDateTime.of(2023, 6, 7, 8, 9, 10, 1_000)),
+                BeerDTO.builder().beerName("Nulls").build());
+        final var page = new PageImpl<>(beers, PageRequest.of(1, 3), 10);
+
+        final var outputStream = new ByteArrayOutputStream();
+        BeerJsonWriter.writePage(page, BeerJsonWriter::writeBeer, outputStream);
+
+        assertThat(outputStream.toString()).isEqualTo(this.objectMapper.writeValueAsString(PageDTO.of(page)));
+    }
+
+    private static BeerDTO beer(final LocalDateTime createdDate, final LocalDateTime updatedDate) {
+        return BeerDTO.builder()
+                .id(UUID.randomUUID())
+                .version(2)
+                .beerName("Galaxy \"Cat\"")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("12356")
+                .quantityOnHand(7)
+                .price(new BigDecimal("12.90"))
+                .createdDate(createdDate)
+                .updatedDate(updatedDate)
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package guru.springframework.spring6restmvc.service;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.impl.BeerServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerServiceImplTest {
+
+    private BeerService beerService;
+
+    @BeforeEach
+    void setUp() {
+        this.beerService = new BeerServiceImpl();
+
+        IntStream.range(0, 60).forEach(i -> this.beerService.saveNewBeer(BeerDTO.builder()
+                .beerName("Stout %02d".formatted(i))
+                .beerStyle(i % 2 == 0 ? BeerStyle.STOUT : BeerStyle.PORTER)
+                .upc("upc-" + i)
+                .price(BigDecimal.TEN)
+                .quantityOnHand(i)
+                .build()));
+    }
+
+    @Test
+    void testGetBeerPagePagesThroughSortedIndex() {
+        final var page = this.beerService.getBeerPage(null, null, true, 1, 25);
+
+        assertThat(page.getTotalElements()).isEqualTo(63);
+        assertThat(page.getContent()).hasSize(25);
+        assertThat(page.getContent().get(0).getBeerName()).isEqualTo("Stout 22");
+    }
+
+    @Test
+    void testGetBeerPageFiltersByStyleAndName() {
+        final var page = this.beerService.getBeerPage("stout 1", BeerStyle.STOUT, false, 0, 25);
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactly("Stout 10", "Stout 12", "Stout 14", "Stout 16", "Stout 18");
+        assertThat(page.getContent()).allSatisfy(beer -> assertThat(beer.getQuantityOnHand()).isNull());
+    }
+
+    @Test
+    void testNameFilterMatchesAnywhereInTheName() {
+        assertThat(this.beerService.getBeerPage("CLASSIC", null, true, 0, 25).getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactly("Ale Classic", "Lager Classic", "Pilsner Classic");
+        assertThat(this.beerService.getBeerSlice("out 5", BeerStyle.PORTER, true, null, 25).getContent())
+                .extracting(BeerDTO::getBeerName)
+                .containsExactly("Stout 51", "Stout 53", "Stout 55", "Stout 57", "Stout 59");
+    }
+
+    @Test
+    void testGetBeerSliceFiltersByNameAcrossCursors() {
+        final var first = this.beerService.getBeerSlice("stout 1", null, false, null, 6);
+
+        assertThat(first.getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactly("Stout 10", "Stout 11", "Stout 12", "Stout 13", "Stout 14", "Stout 15");
+        assertThat(first.getNextCursor()).isNotNull();
+
+        final var second = this.beerService.getBeerSlice("stout 1", null, false, first.getNextCursor(), 6);
+
+        assertThat(second.getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactly("Stout 16", "Stout 17", "Stout 18", "Stout 19");
+        assertThat(second.getNextCursor()).isNull();
+
+        // a cursor from an unfiltered slice may point past every match
+        final var beyond = this.beerService.getBeerSlice(null, null, false, null, 62).getNextCursor();
+
+        assertThat(this.beerService.getBeerSlice("stout 1", null, false, beyond, 6).getContent()).isEmpty();
+    }
+
+    @Test
+    void testPatchMovesBeerBetweenIndexes() {
+        final var beer = this.beerService.getBeerPage("stout 00", null, true, 0, 25).getContent().get(0);
+
+        this.beerService.patchBeerById(beer.getId(), BeerDTO.builder().beerName("Porter 00").beerStyle(BeerStyle.PORTER).build());
+
+        assertThat(this.beerService.getBeerPage("stout 00", null, true, 0, 25).getContent()).isEmpty();
+        assertThat(this.beerService.getBeerPage("porter", BeerStyle.PORTER, true, 0, 25).getContent())
+                .extracting(BeerDTO::getId)
+                .containsExactly(beer.getId());
+        assertThat(this.beerService.getBeerPage(null, BeerStyle.STOUT, true, 0, 25).getTotalElements()).isEqualTo(29);
+    }
+
+    @Test
+    void testReturnedBeersAreCopies() {
+        final var beer = this.beerService.getBeerPage(null, null, true, 0, 25).getContent().get(0);
+
+        beer.setBeerName("Changed by caller");
+
+        assertThat(this.beerService.getBeerById(beer.getId())).hasValueSatisfying(stored ->
+                assertThat(stored.getBeerName()).isNotEqualTo("Changed by caller"));
+    }
+
+    @Test
+    void testConcurrentPatchesAreNotLost() throws Exception {
+        final var beer = this.beerService.getBeerPage(null, null, true, 0, 25).getContent().get(0);
+        final var writers = 8;
+        final var patchesPerWriter = 500;
+
+        final var executor = Executors.newFixedThreadPool(writers);
+
+        try {
+            final var futures = new ArrayList<Future<?>>();
+
+            for (int writer = 0; writer < writers; writer++) {
+                futures.add(executor.submit(() -> IntStream.range(0, patchesPerWriter).forEach(i ->
+                        this.beerService.patchBeerById(beer.getId(), BeerDTO.builder().quantityOnHand(i).build()))));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(this.beerService.getBeerVersion(beer.getId())).contains(beer.getVersion() + writers * patchesPerWriter);
+    }
+
+    @Test
+    void testConcurrentPatchesFlippingNameAndStyleKeepBeerIndexed() throws Exception {
+        final var beer = this.beerService.getBeerPage("Stout 00", null, true, 0, 25).getContent().get(0);
+        final var writers = 8;
+        final var patchesPerWriter = 200;
+
+        final var executor = Executors.newFixedThreadPool(writers);
+
+        try {
+            // a lost index entry only shows once the writers stop, so check after every round
+            for (int round = 0; round < 100; round++) {
+                final var futures = new ArrayList<Future<?>>();
+
+                for (int writer = 0; writer < writers; writer++) {
+                    futures.add(executor.submit(() -> IntStream.range(0, patchesPerWriter).forEach(i ->
+                            this.beerService.patchBeerById(beer.getId(), BeerDTO.builder()
+                                    .beerName(i % 2 == 0 ? "Flip Even" : "Flip Odd")
+                                    .beerStyle(i % 4 < 2 ? BeerStyle.STOUT : BeerStyle.PORTER)
+                                    .build()))));
+                }
+
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                final var current = this.beerService.getBeerById(beer.getId()).orElseThrow();
+
+                assertThat(this.beerService.getBeerPage(current.getBeerName(), null, true, 0, 25).getContent())
+                        .extracting(BeerDTO::getId).containsExactly(beer.getId());
+                assertThat(this.beerService.getBeerPage(current.getBeerName(), current.getBeerStyle(), true, 0, 25).getContent())
+                        .extracting(BeerDTO::getId).containsExactly(beer.getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package guru.springframework.spring6restmvc.service;
+
+import guru.springframework.spring6restmvc.enteties.Beer;
+import guru.springframework.spring6restmvc.exception.BadRequestException;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerInventorySummary;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.InventoryJournalCheckpointRepository;
+import guru.springframework.spring6restmvc.services.InventoryDeltaService;
+import guru.springframework.spring6restmvc.services.impl.InventoryDeltaServiceJPA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = "app.inventory.flush-interval=PT1H")
+class InventoryDeltaServiceJPAIT {
+
+    @Autowired
+    private InventoryDeltaService inventoryDeltaService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private InventoryJournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TempDir
+    private Path journalDir;
+
+    @TempDir
+    private Path otherJournalDir;
+
+    private Beer testBeer;
+
+    @BeforeEach
+    void setUp() {
+        this.testBeer = this.beerRepository.save(Beer.builder()
+                .beerName("Inventory delta beer")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("delta-upc")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(100)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteById(this.testBeer.getId());
+    }
+
+    @Test
+    void testDeltasAreCoalescedIntoOneUpdate() {
+        this.inventoryDeltaService.recordDelta(this.testBeer.getId(), -3);
+        this.inventoryDeltaService.recordDelta(this.testBeer.getId(), -2);
+        this.inventoryDeltaService.recordDelta(this.testBeer.getId(), 10);
+
+        assertThat(this.inventoryDeltaService.pendingDelta(this.testBeer.getId(), this.testBeer.getVersion())).isEqualTo(5);
+
+        assertThat(this.inventoryDeltaService.flush()).isEqualTo(1);
+
+        final var flushed = this.beerRepository.findById(this.testBeer.getId()).orElseThrow();
+        assertThat(flushed.getQuantityOnHand()).isEqualTo(105);
+        assertThat(flushed.getVersion()).isEqualTo(this.testBeer.getVersion() + 1);
+        assertThat(this.inventoryDeltaService.pendingDelta(this.testBeer.getId(), this.testBeer.getVersion())).isZero();
+    }
+
+    @Test
+    void testFlushRefreshesCachedStyleList() {
+        // the style list is served from the query cache, so the first read caches the row with 100 on hand
+        assertThat(this.quantityInLagerList()).isEqualTo(100);
+
+        this.inventoryDeltaService.recordDelta(this.testBeer.getId(), -4);
+        this.inventoryDeltaService.flush();
+
+        assertThat(this.quantityInLagerList()).isEqualTo(96);
+    }
+
+    @Test
+    void testUnflushedDeltasAreReplayedOnceAfterRestart() {
+        final var crashed = this.newService(this.journalDir);
+        crashed.recordDelta(this.testBeer.getId(), -7);
+        crashed.recordDelta(this.testBeer.getId(), -1);
+
+        final var restarted = this.newService(this.journalDir);
+        assertThat(restarted.pendingDelta(this.testBeer.getId(), this.testBeer.getVersion())).isEqualTo(-8);
+        assertThat(restarted.flush()).isEqualTo(1);
+
+        final var restartedAgain = this.newService(this.journalDir);
+        assertThat(restartedAgain.pendingDelta(this.testBeer.getId(), this.testBeer.getVersion())).isZero();
+        assertThat(restartedAgain.flush()).isZero();
+
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(92);
+    }
+
+    @Test
+    void testInFlightDeltaIsOnlyAddedToVersionsFromBeforeTheFlush() {
+        final var pendingWhileFlushing = new AtomicReference<List<Integer>>();
+        final var beerId = this.testBeer.getId();
+        final var version = this.testBeer.getVersion();
+
+        final var repository = mock(BeerRepository.class, AdditionalAnswers.delegatesTo(this.beerRepository));
+        final var service = this.newService(this.journalDir, repository);
+
+        doAnswer(invocation -> {
+            final var updated = this.beerRepository.applyInventoryDeltas(invocation.getArgument(0));
+            pendingWhileFlushing.set(List.of(service.pendingDelta(beerId, version), service.pendingDelta(beerId, version + 1)));
+            return updated;
+        }).when(repository).applyInventoryDeltas(anyMap());
+
+        service.recordDelta(beerId, -6);
+        assertThat(service.flush()).isEqualTo(1);
+
+        assertThat(pendingWhileFlushing.get()).containsExactly(-6, 0);
+    }
+
+    @Test
+    void testRejectedDeltaIsDroppedAndTheOthersAreApplied() {
+        final var rejectedBeer = this.beerRepository.save(Beer.builder()
+                .beerName("Rejected delta beer")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("rejected-delta-upc")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(50)
+                .build());
+
+        try {
+            final var repository = mock(BeerRepository.class, AdditionalAnswers.delegatesTo(this.beerRepository));
+            final var service = this.newService(this.journalDir, repository);
+
+            doAnswer(invocation -> {
+                final Map<UUID, Integer> deltas = invocation.getArgument(0);
+                if (deltas.containsKey(rejectedBeer.getId())) {
+                    throw new DataIntegrityViolationException("quantity_on_hand out of range");
+                }
+                return this.beerRepository.applyInventoryDeltas(deltas);
+            }).when(repository).applyInventoryDeltas(anyMap());
+
+            service.recordDelta(this.testBeer.getId(), -3);
+            service.recordDelta(rejectedBeer.getId(), 5);
+
+            assertThat(service.flush()).isEqualTo(1);
+            assertThat(service.pendingDelta(rejectedBeer.getId(), rejectedBeer.getVersion())).isZero();
+            assertThat(service.flush()).isZero();
+
+            assertThat(this.beerRepository.findById(this.testBeer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(97);
+            assertThat(this.beerRepository.findById(rejectedBeer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(50);
+
+            // the dropped delta is behind the checkpoint, so a restart does not bring it back either
+            assertThat(this.newService(this.journalDir).pendingDelta(rejectedBeer.getId(), rejectedBeer.getVersion())).isZero();
+        } finally {
+            this.beerRepository.deleteById(rejectedBeer.getId());
+        }
+    }
+
+    @Test
+    void testDeltaThatWouldOverflowThePendingSumIsRejected() {
+        final var service = this.newService(this.journalDir);
+
+        service.recordDelta(this.testBeer.getId(), Integer.MAX_VALUE - 1);
+
+        assertThatThrownBy(() -> service.recordDelta(this.testBeer.getId(), 2))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(service.pendingDelta(this.testBeer.getId(), this.testBeer.getVersion())).isEqualTo(Integer.MAX_VALUE - 1);
+
+        // the rejected delta was never journaled, so it does not come back on restart
+        assertThat(this.newService(this.journalDir).pendingDelta(this.testBeer.getId(), this.testBeer.getVersion()))
+                .isEqualTo(Integer.MAX_VALUE - 1);
+    }
+
+    @Test
+    void testJournalsInOtherDirectoriesKeepTheirOwnCheckpoint() {
+        final var unflushed = this.newService(this.journalDir);
+        unflushed.recordDelta(this.testBeer.getId(), -5);
+
+        // a second instance flushing a longer journal must not move the first journal's checkpoint past its deltas
+        final var other = this.newService(this.otherJournalDir);
+        other.recordDelta(this.testBeer.getId(), 1);
+        other.recordDelta(this.testBeer.getId(), 1);
+        assertThat(other.flush()).isEqualTo(1);
+
+        final var restarted = this.newService(this.journalDir);
+        assertThat(restarted.pendingDelta(this.testBeer.getId(), this.testBeer.getVersion())).isEqualTo(-5);
+        assertThat(restarted.flush()).isEqualTo(1);
+
+        assertThat(this.beerRepository.findById(this.testBeer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(97);
+    }
+
+    private Integer quantityInLagerList() {
+        return this.transactionTemplate.execute(status -> this.beerRepository
+                .findPageByBeerStyle(BeerStyle.LAGER, PageRequest.of(0, 1000), BeerInventorySummary.class).stream()
+                .filter(beer -> beer.id().equals(this.testBeer.getId()))
+                .findFirst()
+                .orElseThrow()
+                .quantityOnHand());
+    }
+
+    private InventoryDeltaServiceJPA newService(final Path journalDir) {
+        return this.newService(journalDir, this.beerRepository);
+    }
+
+    private InventoryDeltaServiceJPA newService(final Path journalDir, final BeerRepository beerRepository) {
+        final var service = new InventoryDeltaServiceJPA(beerRepository, this.checkpointRepository,
+                this.transactionTemplate, this.cacheManager);
+
+        ReflectionTestUtils.setField(service, "journalDir", journalDir);
+        ReflectionTestUtils.invokeMethod(service, "recover");
+
+        return service;
+    }
+}